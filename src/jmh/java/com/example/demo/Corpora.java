@@ -0,0 +1,60 @@
+package com.example.demo;
+
+import com.example.demo.model.CandidateGrid;
+import com.example.demo.model.Geometry;
+import com.example.demo.model.GridFormat;
+import com.example.demo.model.PuzzleFormat;
+import com.example.demo.model.SudokuBoard;
+import com.example.demo.model.Variant;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The puzzle corpora in src/jmh/resources/puzzles: easy, medium, hard and 17-clue, and the variant corpora
+ * diagonal, jigsaw and killer, whose lines hold the variant and the puzzle separated by a space.
+ */
+public final class Corpora {
+
+    private Corpora() {
+    }
+
+    public static List<String> lines(String corpus) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                Corpora.class.getResourceAsStream("/puzzles/" + corpus + ".txt"), StandardCharsets.US_ASCII))) {
+            return reader.lines()
+                    .map(String::trim)
+                    .filter(line -> !line.isEmpty())
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static List<SudokuBoard> boards(String corpus, SudokuBoard empty) {
+        return lines(corpus).stream()
+                .map(line -> PuzzleFormat.parse(empty, line))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * The puzzles of a corpus as grids of their variant; lines without a variant are classic puzzles.
+     */
+    public static List<CandidateGrid> grids(String corpus) {
+        return lines(corpus).stream()
+                .map(line -> {
+                    final int space = line.indexOf(' ');
+                    return space < 0
+                            ? GridFormat.parse(line)
+                            : Variant.parse(line.substring(0, space), Geometry.CLASSIC.getBoxSize())
+                                    .parsePuzzle(line.substring(space + 1));
+                })
+                .collect(Collectors.toList());
+    }
+
+}
@@ -0,0 +1,73 @@
+package com.example.demo;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wall clock time of a one-off solve in a fresh JVM, from launching java to its exit: batch solving a
+ * one-puzzle file through the Spring application against {@link SolverCli}. Both run on the class path of
+ * the benchmarks, so neither gets a class data sharing archive of its own.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 10)
+@Fork(1)
+public class StartupBenchmark {
+
+    private static final String PUZZLE = "53..7....6..195....98....6.8...6...34..8.3..17...2...6.6....28....419..5....8..79";
+
+    @Param({ "spring", "cli" })
+    public String entry;
+
+    private Path input;
+    private Path output;
+    private List<String> command;
+
+    @Setup
+    public void setup() throws IOException {
+        input = Files.createTempFile("startup", ".txt");
+        output = Files.createTempFile("startup", ".solved");
+        Files.write(input, Collections.singletonList(PUZZLE), StandardCharsets.US_ASCII);
+        command = new ArrayList<>(Arrays.asList(System.getProperty("java.home") + File.separator + "bin"
+                + File.separator + "java", "-cp", System.getProperty("java.class.path")));
+        if ("spring".equals(entry)) {
+            //Any free port, so a running application does not fail the start:
+            command.addAll(Arrays.asList(Application.class.getName(), "--batch.input=" + input,
+                    "--batch.output=" + output, "--server.port=0"));
+        } else {
+            command.addAll(Arrays.asList(SolverCli.class.getName(), SolverCli.SOLVE, PUZZLE));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(input);
+        Files.deleteIfExists(output);
+    }
+
+    @Benchmark
+    public int solveOnce() throws IOException, InterruptedException {
+        final Process process = new ProcessBuilder(command)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        final int exit = process.waitFor();
+        if (exit != 0) {
+            throw new IllegalStateException(String.join(" ", command) + " exited with " + exit);
+        }
+        return exit;
+    }
+
+}
@@ -0,0 +1,41 @@
+package com.example.demo.model;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saving and restoring a board as a {@link BoardSnapshot}, the cost of swapping a session in from its bytes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BoardSnapshotBenchmark {
+
+    //SampleCommand.SAMPLE2
+    private static final String SAMPLE2 =
+            "000000006090350070000702040805000000000000700004026000058900000900040600400070010";
+
+    private SudokuBoard board;
+    private byte[] snapshot;
+
+    @Setup
+    public void setup() {
+        board = PuzzleFormat.parse(SudokuBoard.empty(), SAMPLE2);
+        snapshot = BoardSnapshot.toBytes(board);
+    }
+
+    @Benchmark
+    public byte[] save() {
+        return BoardSnapshot.toBytes(board);
+    }
+
+    @Benchmark
+    public SudokuBoard load() {
+        return BoardSnapshot.fromBytes(snapshot);
+    }
+
+}
@@ -0,0 +1,91 @@
+package com.example.demo.model;
+
+import com.example.demo.config.SolverProperties;
+import com.example.demo.exception.ValueAlreadySetException;
+import com.example.demo.service.SolveStatsListener;
+import com.example.demo.service.Solver;
+import com.example.demo.service.propagation.Propagator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SudokuBoardBenchmark {
+
+    private static final String SOLVED =
+            "534678912672195348198342567859761423426853791713924856961537284287419635345286179";
+
+    //SampleCommand.SAMPLE2
+    private static final String SAMPLE2 =
+            "000000006090350070000702040805000000000000700004026000058900000900040600400070010";
+
+    //An empty cell of sample 2 and a value that can go there:
+    private static final Position NEXT_POSITION = Position.at(0, 0);
+    private static final Value NEXT_VALUE = Value.VALUE_7;
+
+    @Param({ "map", "bitboard" })
+    public String implementation;
+
+    private SudokuBoard empty;
+    private SudokuBoard sample2;
+    private final Solver solver = new Solver(Propagator.standard(), ForkJoinPool.commonPool(), new SolverProperties(),
+            SolveStatsListener.NONE);
+
+    @Setup
+    public void setup() {
+        empty = "map".equals(implementation) ? SudokuBoard.empty() : SudokuBoard.emptyBitboard();
+        sample2 = PuzzleFormat.parse(empty, SAMPLE2);
+    }
+
+    @Benchmark
+    public SudokuBoard withValueChain() throws ValueAlreadySetException {
+        SudokuBoard board = empty;
+        for (int cell = 0; cell < SOLVED.length(); cell++) {
+            board = board.withValue(Position.ofIndex(cell), Value.of(SOLVED.charAt(cell) - '1'));
+        }
+        return board;
+    }
+
+    @Benchmark
+    public boolean placeSolvedGrid() throws ValueAlreadySetException {
+        //Every placement is followed by a validity check, as the solver does for each node:
+        SudokuBoard board = empty;
+        for (int cell = 0; cell < SOLVED.length(); cell++) {
+            board = board.withValue(Position.ofIndex(cell), Value.of(SOLVED.charAt(cell) - '1'));
+            if (!board.isValid()) {
+                return false;
+            }
+        }
+        return board.isSolved();
+    }
+
+    //Boards cache what they computed, so these measure a freshly placed child every time:
+    @Benchmark
+    public boolean isValid() throws ValueAlreadySetException {
+        return sample2.withValue(NEXT_POSITION, NEXT_VALUE).isValid();
+    }
+
+    @Benchmark
+    public void getPossibleValues(Blackhole blackhole) throws ValueAlreadySetException {
+        final SudokuBoard board = sample2.withValue(NEXT_POSITION, NEXT_VALUE);
+        for (int row = 0; row < 9; row++) {
+            for (int col = 0; col < 9; col++) {
+                blackhole.consume(board.getPossibleValues(Position.at(row, col)));
+            }
+        }
+    }
+
+    @Benchmark
+    public Set<SudokuBoard> solveSample2() {
+        return solver.findSolutions(sample2);
+    }
+
+}
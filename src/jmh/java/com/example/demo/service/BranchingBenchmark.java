@@ -0,0 +1,74 @@
+package com.example.demo.service;
+
+import com.example.demo.Corpora;
+import com.example.demo.config.SolverProperties;
+import com.example.demo.model.SudokuBoard;
+import com.example.demo.service.branching.BranchingStrategies;
+import com.example.demo.service.propagation.Propagator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The branching strategies of the backtracking search on every corpus. Next to the time per corpus, the
+ * nodes counter reports the nodes expanded, which shows how much of the time a strategy saves (or costs)
+ * comes from a smaller tree rather than a cheaper node.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BranchingBenchmark {
+
+    @Param({ "mrv", "mrv-degree", "lcv", "random-restarts" })
+    public String strategy;
+
+    @Param({ "easy", "medium", "hard", "17-clue" })
+    public String corpus;
+
+    private List<SudokuBoard> boards;
+    private ForkJoinPool pool;
+    private Solver solver;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class NodeCounters {
+
+        public long nodes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            nodes = 0;
+        }
+
+    }
+
+    @Setup
+    public void setup() {
+        boards = Corpora.boards(corpus, SudokuBoard.emptyBitboard());
+        final SolverProperties properties = new SolverProperties();
+        pool = new ForkJoinPool(properties.getParallelism());
+        solver = new Solver(Propagator.standard(), pool, properties, SolveStatsListener.NONE)
+                .withBranching(BranchingStrategies.standard().get(strategy));
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public void solve(NodeCounters counters, Blackhole blackhole) {
+        for (final SudokuBoard board : boards) {
+            final SolveResult result = solver.solve(board);
+            counters.nodes += result.getNodesExpanded();
+            blackhole.consume(result);
+        }
+    }
+
+}
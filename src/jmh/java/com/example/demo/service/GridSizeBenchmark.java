@@ -0,0 +1,109 @@
+package com.example.demo.service;
+
+import com.example.demo.config.SolverProperties;
+import com.example.demo.model.CandidateGrid;
+import com.example.demo.model.Geometry;
+import com.example.demo.service.propagation.Propagator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * How the time to find a solution grows with the grid size, from 4x4 to 25x25. The puzzles are shuffled
+ * copies of a patterned solution with part of the cells given, generated from fixed seeds. The share given
+ * is set per size, about as low as it goes before one of the seeds turns into a search of seconds: with
+ * more given, propagation alone finishes most puzzles and the benchmark says nothing about the search.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GridSizeBenchmark {
+
+    private static final int PUZZLES = 8;
+    //Share of the cells given, by box size:
+    private static final double[] GIVEN = { 0, 0, 0.25, 0.3, 0.4, 0.55 };
+
+    @Param({ "2", "3", "4", "5" })
+    public int boxSize;
+
+    private List<CandidateGrid> grids;
+    private ForkJoinPool pool;
+    private Solver solver;
+
+    @Setup
+    public void setup() {
+        final Geometry geometry = Geometry.of(boxSize);
+        grids = new ArrayList<>(PUZZLES);
+        for (int seed = 0; seed < PUZZLES; seed++) {
+            grids.add(puzzle(geometry, new Random(seed)));
+        }
+        final SolverProperties properties = new SolverProperties();
+        pool = new ForkJoinPool(properties.getParallelism());
+        solver = new Solver(Propagator.standard(), pool, properties, SolveStatsListener.NONE);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    //One operation finds the first solution of every puzzle:
+    @Benchmark
+    public long findFirstSolution() {
+        long found = 0;
+        for (final CandidateGrid grid : grids) {
+            found += solver.search(grid, solution -> false);
+        }
+        return found;
+    }
+
+    private static CandidateGrid puzzle(final Geometry geometry, final Random random) {
+        final int k = geometry.getBoxSize();
+        final int size = geometry.getSize();
+        final int[] rows = shuffledLines(k, random);
+        final int[] cols = shuffledLines(k, random);
+        final List<Integer> values = new ArrayList<>(size);
+        for (int value = 0; value < size; value++) {
+            values.add(value);
+        }
+        Collections.shuffle(values, random);
+        final CandidateGrid grid = CandidateGrid.empty(geometry);
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                if (random.nextDouble() < GIVEN[k]) {
+                    final int r = rows[row];
+                    final int pattern = (k * (r % k) + r / k + cols[col]) % size;
+                    grid.assign(row * size + col, values.get(pattern));
+                }
+            }
+        }
+        return grid;
+    }
+
+    //Shuffles the bands (or stacks) and the lines within each of them:
+    private static int[] shuffledLines(final int k, final Random random) {
+        final List<Integer> bands = new ArrayList<>(k);
+        for (int band = 0; band < k; band++) {
+            bands.add(band);
+        }
+        Collections.shuffle(bands, random);
+        final int[] lines = new int[k * k];
+        for (int band = 0; band < k; band++) {
+            final List<Integer> within = new ArrayList<>(bands);
+            Collections.shuffle(within, random);
+            for (int line = 0; line < k; line++) {
+                lines[band * k + line] = bands.get(band) * k + within.get(line);
+            }
+        }
+        return lines;
+    }
+
+}
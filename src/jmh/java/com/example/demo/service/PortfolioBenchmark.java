@@ -0,0 +1,68 @@
+package com.example.demo.service;
+
+import com.example.demo.Corpora;
+import com.example.demo.config.SolverProperties;
+import com.example.demo.model.SudokuBoard;
+import com.example.demo.service.branching.BranchingStrategies;
+import com.example.demo.service.propagation.Propagator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of single puzzles for the portfolio against the backtracking solver alone. Sampled, so the
+ * results hold the percentiles: the portfolio is meant to cut the tail (p99, p99.9) on hard puzzles,
+ * racing costs it a little on the median of easy ones.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PortfolioBenchmark {
+
+    @Param({ Solver.NAME, PortfolioSolver.NAME })
+    public String engine;
+
+    @Param({ "easy", "hard", "17-clue" })
+    public String corpus;
+
+    private List<SudokuBoard> boards;
+    private ForkJoinPool pool;
+    private ExecutorService portfolioExecutor;
+    private SolverEngine solverEngine;
+    private int next;
+
+    @Setup
+    public void setup() {
+        boards = Corpora.boards(corpus, SudokuBoard.emptyBitboard());
+        final SolverProperties properties = new SolverProperties();
+        pool = new ForkJoinPool(properties.getParallelism());
+        portfolioExecutor = Executors.newCachedThreadPool();
+        final Solver solver = new Solver(Propagator.standard(), pool, properties, SolveStatsListener.NONE);
+        solverEngine = Solver.NAME.equals(engine)
+                ? solver
+                : new PortfolioSolver(solver, Propagator.standard(), pool, properties, portfolioExecutor,
+                        SolveStatsListener.NONE, BranchingStrategies.standard());
+    }
+
+    @TearDown
+    public void tearDown() {
+        portfolioExecutor.shutdownNow();
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public SolveResult solve() {
+        //One puzzle per operation, so every sample is the latency of a single solve:
+        final SudokuBoard board = boards.get(next);
+        next = (next + 1) % boards.size();
+        return solverEngine.solve(board);
+    }
+
+}
@@ -0,0 +1,59 @@
+package com.example.demo.service;
+
+import com.example.demo.config.SolverProperties;
+import com.example.demo.model.PuzzleFormat;
+import com.example.demo.model.SudokuBoard;
+import com.example.demo.service.propagation.Propagator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Memory use of the backtracking search on boards with many solutions, copying the grid for every node
+ * against undoing the branches through the trail. Run with the gc profiler (the jmh task does) and compare
+ * gc.alloc.rate.norm, the bytes allocated per search.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx256m")
+public class SearchMemoryBenchmark {
+
+    private static final String SOLVED =
+            "534678912672195348198342567859761423426853791713924856961537284287419635345286179";
+
+    //A solved grid with its last rows emptied: 4 empty rows have 1284 solutions, 5 have 636960:
+    @Param({ "4", "5" })
+    public int emptyRows;
+
+    @Param({ "true", "false" })
+    public boolean undoTrail;
+
+    private SudokuBoard board;
+    private ForkJoinPool pool;
+    private Solver solver;
+
+    @Setup
+    public void setup() {
+        final int given = SOLVED.length() - emptyRows * 9;
+        board = PuzzleFormat.parse(SudokuBoard.emptyBitboard(), SOLVED.substring(0, given) + ".".repeat(emptyRows * 9));
+        final SolverProperties properties = new SolverProperties();
+        properties.setUndoTrail(undoTrail);
+        pool = new ForkJoinPool(properties.getParallelism());
+        solver = new Solver(Propagator.standard(), pool, properties, SolveStatsListener.NONE);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public long countSolutions() {
+        return solver.countSolutions(board, Long.MAX_VALUE);
+    }
+
+}
@@ -0,0 +1,50 @@
+package com.example.demo.service;
+
+import com.example.demo.Corpora;
+import com.example.demo.config.SolverProperties;
+import com.example.demo.model.SudokuBoard;
+import com.example.demo.service.propagation.Propagator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SolverBenchmark {
+
+    @Param({ "easy", "medium", "hard", "17-clue" })
+    public String corpus;
+
+    private List<SudokuBoard> boards;
+    private ForkJoinPool pool;
+    private Solver solver;
+
+    @Setup
+    public void setup() {
+        boards = Corpora.boards(corpus, SudokuBoard.empty());
+        final SolverProperties properties = new SolverProperties();
+        pool = new ForkJoinPool(properties.getParallelism());
+        solver = new Solver(Propagator.standard(), pool, properties, SolveStatsListener.NONE);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    //One operation solves the whole corpus:
+    @Benchmark
+    public void findSolutions(Blackhole blackhole) {
+        for (final SudokuBoard board : boards) {
+            blackhole.consume(solver.findSolutions(board));
+        }
+    }
+
+}
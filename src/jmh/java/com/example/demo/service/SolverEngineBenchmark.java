@@ -0,0 +1,58 @@
+package com.example.demo.service;
+
+import com.example.demo.Corpora;
+import com.example.demo.commands.SampleCommand;
+import com.example.demo.config.SolverProperties;
+import com.example.demo.exception.ValueAlreadySetException;
+import com.example.demo.model.SudokuBoard;
+import com.example.demo.service.propagation.Propagator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SolverEngineBenchmark {
+
+    @Param({ Solver.NAME, DancingLinksSolver.NAME })
+    public String engine;
+
+    @Param({ "sample1", "sample2", "hard" })
+    public String puzzles;
+
+    private SolverEngine solverEngine;
+    private List<SudokuBoard> boards;
+
+    @Setup
+    public void setup() throws ValueAlreadySetException {
+        solverEngine = Solver.NAME.equals(engine)
+                ? new Solver(Propagator.standard(), ForkJoinPool.commonPool(), new SolverProperties(), SolveStatsListener.NONE)
+                : new DancingLinksSolver(SolveStatsListener.NONE);
+        switch (puzzles) {
+            case "sample1":
+                boards = Collections.singletonList(SampleCommand.toBoard(SudokuBoard.empty(), SampleCommand.SAMPLE1));
+                break;
+            case "sample2":
+                boards = Collections.singletonList(SampleCommand.toBoard(SudokuBoard.empty(), SampleCommand.SAMPLE2));
+                break;
+            default:
+                boards = Corpora.boards(puzzles, SudokuBoard.empty());
+        }
+    }
+
+    @Benchmark
+    public void solve(Blackhole blackhole) {
+        for (final SudokuBoard board : boards) {
+            blackhole.consume(solverEngine.findSolutions(board));
+        }
+    }
+
+}
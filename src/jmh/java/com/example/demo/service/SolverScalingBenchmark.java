@@ -0,0 +1,91 @@
+package com.example.demo.service;
+
+import com.example.demo.Corpora;
+import com.example.demo.config.SolverProperties;
+import com.example.demo.model.PuzzleFormat;
+import com.example.demo.model.SudokuBoard;
+import com.example.demo.service.propagation.Propagator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the backtracking search on 1..N threads. Run main to get the speedup over one thread.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SolverScalingBenchmark {
+
+    //The first 40 cells of a solved grid, leaving 5784 solutions to enumerate:
+    private static final String OPEN_BOARD =
+            "5346789126721953481983425678597614234268.........................................";
+
+    @Param({ "1", "2", "4", "8" })
+    public int parallelism;
+
+    private ForkJoinPool pool;
+    private Solver solver;
+    private List<SudokuBoard> hard;
+    private SudokuBoard openBoard;
+
+    @Setup
+    public void setup() {
+        pool = new ForkJoinPool(parallelism);
+        solver = new Solver(Propagator.standard(), pool, new SolverProperties(), SolveStatsListener.NONE);
+        hard = Corpora.boards("hard", SudokuBoard.empty());
+        openBoard = PuzzleFormat.parse(SudokuBoard.empty(), OPEN_BOARD);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public long hardCorpus() {
+        long solutions = 0;
+        for (final SudokuBoard board : hard) {
+            solutions += solver.countSolutions(board, Long.MAX_VALUE);
+        }
+        return solutions;
+    }
+
+    @Benchmark
+    public long openBoard() {
+        return solver.countSolutions(openBoard, Long.MAX_VALUE);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        final String max = String.valueOf(Runtime.getRuntime().availableProcessors());
+        final Collection<RunResult> results = new Runner(new OptionsBuilder()
+                .include(SolverScalingBenchmark.class.getSimpleName())
+                .param("parallelism", "1", "2", "4", max)
+                .build()).run();
+
+        final Map<String, Double> singleThreaded = new HashMap<>();
+        for (final RunResult result : results) {
+            if ("1".equals(result.getParams().getParam("parallelism"))) {
+                singleThreaded.put(result.getParams().getBenchmark(), result.getPrimaryResult().getScore());
+            }
+        }
+        for (final RunResult result : results) {
+            final String benchmark = result.getParams().getBenchmark();
+            System.out.printf("%-60s threads=%-3s %10.3f ms  speedup %.2fx%n",
+                    benchmark,
+                    result.getParams().getParam("parallelism"),
+                    result.getPrimaryResult().getScore(),
+                    singleThreaded.get(benchmark) / result.getPrimaryResult().getScore());
+        }
+    }
+
+}
@@ -0,0 +1,59 @@
+package com.example.demo.service;
+
+import com.example.demo.Corpora;
+import com.example.demo.config.SolverProperties;
+import com.example.demo.model.CandidateGrid;
+import com.example.demo.service.propagation.Propagator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The backtracking search on variant puzzles against classic ones (the hard corpus): every variant compiles
+ * into the same flat tables, so the time per puzzle should stay close to the classic one. Each puzzle is
+ * searched until its solution is proven unique.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VariantBenchmark {
+
+    //The first puzzles of every corpus, so the score is the time per puzzle:
+    private static final int PUZZLES = 10;
+
+    @Param({ "hard", "diagonal", "jigsaw", "killer" })
+    public String corpus;
+
+    private List<CandidateGrid> grids;
+    private ForkJoinPool pool;
+    private Solver solver;
+
+    @Setup
+    public void setup() {
+        grids = Corpora.grids(corpus);
+        final SolverProperties properties = new SolverProperties();
+        pool = new ForkJoinPool(properties.getParallelism());
+        solver = new Solver(Propagator.standard(), pool, properties, SolveStatsListener.NONE);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PUZZLES)
+    public long countSolutions() {
+        long solutions = 0;
+        for (int i = 0; i < PUZZLES; i++) {
+            solutions += solver.countSolutions(grids.get(i), 2);
+        }
+        return solutions;
+    }
+
+}
@@ -0,0 +1,86 @@
+package com.example.demo.service.batch;
+
+import com.example.demo.Corpora;
+import com.example.demo.config.SolverProperties;
+import com.example.demo.model.BitboardSudokuBoard;
+import com.example.demo.model.PuzzleFormat;
+import com.example.demo.service.DancingLinksSolver;
+import com.example.demo.service.SolutionListener;
+import com.example.demo.service.SolveStatsListener;
+import com.example.demo.service.Solver;
+import com.example.demo.service.SolverEngine;
+import com.example.demo.service.propagation.Propagator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Puzzles solved per second on one thread, by the lockstep propagator (with the puzzles it leaves open going
+ * to the dancing links solver, as in batch solving) against each engine solving every puzzle on its own.
+ * The corpus is repeated to fill the lanes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LockstepBenchmark {
+
+    private static final int LANES = 256;
+    private static final String LOCKSTEP = "lockstep";
+    private static final SolutionListener FIRST = solution -> false;
+
+    @Param({ LOCKSTEP, Solver.NAME, DancingLinksSolver.NAME })
+    public String path;
+
+    @Param({ "easy", "medium" })
+    public String corpus;
+
+    private int[][] puzzles;
+    private int[] values;
+    private LockstepPropagator propagator;
+    private SolverEngine engine;
+
+    @Setup
+    public void setup() {
+        final List<String> lines = Corpora.lines(corpus);
+        puzzles = new int[LANES][PuzzleFormat.LENGTH];
+        for (int lane = 0; lane < LANES; lane++) {
+            PuzzleFormat.parseCells(lines.get(lane % lines.size()), puzzles[lane]);
+        }
+        values = new int[PuzzleFormat.LENGTH];
+        propagator = new LockstepPropagator(LANES);
+        engine = Solver.NAME.equals(path)
+                ? new Solver(Propagator.standard(), ForkJoinPool.commonPool(), new SolverProperties(), SolveStatsListener.NONE)
+                : new DancingLinksSolver(SolveStatsListener.NONE);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LANES)
+    public void solve(Blackhole blackhole) {
+        if (!LOCKSTEP.equals(path)) {
+            for (final int[] puzzle : puzzles) {
+                blackhole.consume(engine.search(BitboardSudokuBoard.of(puzzle), FIRST));
+            }
+            return;
+        }
+        propagator.clear();
+        for (final int[] puzzle : puzzles) {
+            propagator.add(puzzle);
+        }
+        propagator.propagate();
+        for (int lane = 0; lane < LANES; lane++) {
+            propagator.values(lane, values);
+            if (propagator.isSolved(lane) || propagator.hasContradiction(lane)) {
+                blackhole.consume(values);
+            } else {
+                blackhole.consume(engine.search(BitboardSudokuBoard.of(values), FIRST));
+            }
+        }
+    }
+
+}
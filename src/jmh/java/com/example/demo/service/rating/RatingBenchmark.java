@@ -0,0 +1,59 @@
+package com.example.demo.service.rating;
+
+import com.example.demo.Corpora;
+import com.example.demo.config.BatchProperties;
+import com.example.demo.model.CandidateGrid;
+import com.example.demo.model.PuzzleFormat;
+import com.example.demo.model.SudokuBoard;
+import com.example.demo.service.DancingLinksSolver;
+import com.example.demo.service.SolveStatsListener;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Puzzles rated per second on one core, one puzzle of the corpus per operation in turn. The setup first
+ * checks that no technique rules out the solution of any puzzle of the corpus.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RatingBenchmark {
+
+    @Param({ "easy", "medium", "hard", "17-clue" })
+    public String corpus;
+
+    private PuzzleRater rater;
+    private List<SudokuBoard> boards;
+    private int next;
+
+    @Setup
+    public void setup() {
+        rater = new PuzzleRater(new BatchProperties());
+        boards = Corpora.boards(corpus, SudokuBoard.emptyBitboard());
+        //A fast rating is worth nothing if a technique removes true candidates:
+        final DancingLinksSolver solver = new DancingLinksSolver(SolveStatsListener.NONE);
+        for (final SudokuBoard board : boards) {
+            for (final SudokuBoard solution : solver.findSolutions(board)) {
+                final Optional<String> technique = rater.findUnsoundStep(CandidateGrid.of(board), CandidateGrid.of(solution));
+                if (technique.isPresent()) {
+                    throw new IllegalStateException(technique.get() + " ruled out the solution of "
+                            + PuzzleFormat.format(board));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public Rating rate() {
+        final SudokuBoard board = boards.get(next);
+        next = next + 1 == boards.size() ? 0 : next + 1;
+        return rater.rate(board);
+    }
+
+}
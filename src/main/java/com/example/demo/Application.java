@@ -6,7 +6,12 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 @SpringBootApplication
 public class Application {
 
-	public static void main(String[] args) {
+	public static void main(String[] args) throws Exception {
+		//One-off solves skip the context, see SolverCli:
+		if (SolverCli.handles(args)) {
+			SolverCli.main(args);
+			return;
+		}
 		SpringApplication.run(Application.class, args);
 	}
 
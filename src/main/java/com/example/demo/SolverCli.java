@@ -0,0 +1,147 @@
+package com.example.demo;
+
+import com.example.demo.config.SolverProperties;
+import com.example.demo.model.CandidateGrid;
+import com.example.demo.model.GridFormat;
+import com.example.demo.model.PuzzleFormat;
+import com.example.demo.model.SudokuBoard;
+import com.example.demo.service.DancingLinksSolver;
+import com.example.demo.service.SolveStatsListener;
+import com.example.demo.service.Solver;
+import com.example.demo.service.SolverEngine;
+import com.example.demo.service.batch.BatchSolver;
+import com.example.demo.service.propagation.Propagator;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * One-off solves without Spring: builds the solver engines by hand, so a run costs the JVM start and the
+ * solve and nothing else. {@code --solve <puzzle>} prints the solution of one puzzle, {@code --stdin} solves
+ * one puzzle per line of the standard input, writing one line per puzzle in the output format of batch
+ * solving. {@code --engine backtracking} picks the engine, dlx otherwise. Exits with 1 when a puzzle is
+ * malformed and 2 on a usage error.
+ * <p>
+ * {@link Application} hands these arguments here before starting any context. None of the classes loaded on
+ * the way need Spring at run time, so the CLI also runs from a class path of the plain jar alone, which is
+ * what the class data sharing archive of the {@code cdsArchive} task is dumped for.
+ */
+public final class SolverCli {
+
+    public static final String SOLVE = "--solve";
+    public static final String STDIN = "--stdin";
+    private static final String ENGINE = "--engine";
+
+    private final SolverEngine engine;
+    private final Solver solver;
+    private boolean invalid;
+
+    private SolverCli(String engineName) {
+        final SolverProperties properties = new SolverProperties();
+        //A single solve has nothing to gain from forking tasks or from metrics:
+        properties.setSplitDepth(0);
+        properties.setMetrics(false);
+        this.solver = new Solver(Propagator.standard(), ForkJoinPool.commonPool(), properties, SolveStatsListener.NONE);
+        if (Solver.NAME.equals(engineName)) {
+            this.engine = solver;
+        } else if (DancingLinksSolver.NAME.equals(engineName)) {
+            this.engine = new DancingLinksSolver(SolveStatsListener.NONE);
+        } else {
+            throw new IllegalArgumentException("Unknown solver engine '" + engineName + "', expected "
+                    + Solver.NAME + " or " + DancingLinksSolver.NAME);
+        }
+    }
+
+    /**
+     * Whether the arguments ask for the CLI rather than the application.
+     */
+    public static boolean handles(String[] args) {
+        return args.length > 0 && (SOLVE.equals(args[0]) || STDIN.equals(args[0]));
+    }
+
+    public static void main(String[] args) throws IOException {
+        String puzzle = null;
+        boolean stdin = false;
+        String engineName = DancingLinksSolver.NAME;
+        for (int i = 0; i < args.length; i++) {
+            if (SOLVE.equals(args[i]) && i + 1 < args.length) {
+                puzzle = args[++i];
+            } else if (STDIN.equals(args[i])) {
+                stdin = true;
+            } else if (ENGINE.equals(args[i]) && i + 1 < args.length) {
+                engineName = args[++i];
+            } else {
+                usage("Unexpected argument '" + args[i] + "'");
+            }
+        }
+        if ((puzzle != null) == stdin) {
+            usage("Expected either " + SOLVE + " <puzzle> or " + STDIN);
+        }
+        final SolverCli cli;
+        try {
+            cli = new SolverCli(engineName);
+        } catch (IllegalArgumentException e) {
+            usage(e.getMessage());
+            return;
+        }
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.US_ASCII))) {
+            if (stdin) {
+                final BufferedReader in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.US_ASCII));
+                String line;
+                while ((line = in.readLine()) != null) {
+                    line = line.trim();
+                    //Blank lines and comments are skipped, as in puzzle files:
+                    if (!line.isEmpty() && !line.startsWith("#")) {
+                        out.write(cli.solve(line));
+                        out.write(System.lineSeparator());
+                    }
+                }
+            } else {
+                out.write(cli.solve(puzzle.trim()));
+                out.write(System.lineSeparator());
+            }
+        }
+        System.exit(cli.invalid ? 1 : 0);
+    }
+
+    private static void usage(String message) {
+        System.err.println(message);
+        System.err.println("Usage: " + SOLVE + " <puzzle> | " + STDIN + " [" + ENGINE + " "
+                + DancingLinksSolver.NAME + "|" + Solver.NAME + "]");
+        System.exit(2);
+    }
+
+    //The line batch solving writes for the puzzle:
+    private String solve(final String puzzle) {
+        try {
+            if (puzzle.length() == PuzzleFormat.LENGTH) {
+                final SudokuBoard board = PuzzleFormat.parse(SudokuBoard.emptyBitboard(), puzzle);
+                final AtomicReference<SudokuBoard> solution = new AtomicReference<>();
+                engine.search(board, s -> {
+                    solution.set(s);
+                    return false;
+                });
+                return solution.get() == null ? BatchSolver.UNSOLVABLE : PuzzleFormat.format(solution.get());
+            }
+            //Grids of other sizes are solved by the backtracking solver, whatever the engine:
+            final CandidateGrid grid = GridFormat.parse(puzzle);
+            final AtomicReference<String> solution = new AtomicReference<>(BatchSolver.UNSOLVABLE);
+            solver.search(grid, s -> {
+                solution.set(GridFormat.format(s));
+                return false;
+            });
+            return solution.get();
+        } catch (IllegalArgumentException e) {
+            invalid = true;
+            return BatchSolver.INVALID;
+        }
+    }
+
+}
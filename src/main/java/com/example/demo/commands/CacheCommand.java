@@ -0,0 +1,31 @@
+package com.example.demo.commands;
+
+import com.example.demo.service.cache.CacheStats;
+import com.example.demo.service.cache.SolutionCache;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.shell.standard.ShellComponent;
+import org.springframework.shell.standard.ShellMethod;
+
+@ShellComponent
+@AllArgsConstructor
+@Slf4j
+public class CacheCommand {
+
+    private final SolutionCache solutionCache;
+
+    @ShellMethod("Show the hits and misses of the solution cache")
+    public void cacheStats() {
+        final CacheStats stats = solutionCache.getStats();
+        log.info("{} of {} boards cached, {} hits, {} misses ({}% hit rate), {} evicted",
+                stats.getSize(), stats.getCapacity(), stats.getHits(), stats.getMisses(),
+                Math.round(stats.getHitRate() * 100), stats.getEvictions());
+    }
+
+    @ShellMethod("Empty the solution cache")
+    public void clearCache() {
+        solutionCache.clear();
+        log.info("Cleared the solution cache");
+    }
+
+}
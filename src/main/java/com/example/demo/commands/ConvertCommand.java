@@ -0,0 +1,37 @@
+package com.example.demo.commands;
+
+import com.example.demo.service.batch.BinaryPuzzleFormat;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.shell.standard.ShellComponent;
+import org.springframework.shell.standard.ShellMethod;
+import org.springframework.shell.standard.ShellOption;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+@ShellComponent
+@Slf4j
+public class ConvertCommand {
+
+    @ShellMethod("Convert a file of 81 character puzzles to the compact binary format")
+    public void toBinary(String input,
+                         String output,
+                         @ShellOption(defaultValue = "false",
+                                 help = "Pack every cell (best for solutions) instead of only the clues") boolean packed,
+                         @ShellOption(defaultValue = "true",
+                                 help = "Add an index to seek sparse files by board number") boolean indexed)
+            throws IOException {
+        final Path binary = Paths.get(output);
+        final long count = BinaryPuzzleFormat.fromText(Paths.get(input), binary, !packed, indexed);
+        log.info("Converted {} boards, {} bytes", count, Files.size(binary));
+    }
+
+    @ShellMethod("Convert a binary puzzle file back to one 81 character puzzle per line")
+    public void toText(String input, String output) throws IOException {
+        final long count = BinaryPuzzleFormat.toText(Paths.get(input), Paths.get(output));
+        log.info("Converted {} boards", count);
+    }
+
+}
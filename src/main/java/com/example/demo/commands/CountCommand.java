@@ -2,11 +2,17 @@ package com.example.demo.commands;
 
 import com.example.demo.model.SudokuBoard;
 import com.example.demo.service.BoardHolder;
+import com.example.demo.service.SearchOutcome;
+import com.example.demo.service.SearchStatus;
 import com.example.demo.service.Solver;
+import com.example.demo.service.SolverEngine;
+import com.example.demo.service.SolverEngines;
+import com.example.demo.service.branching.BranchingStrategies;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.shell.standard.ShellComponent;
 import org.springframework.shell.standard.ShellMethod;
+import org.springframework.shell.standard.ShellOption;
 
 @ShellComponent
 @AllArgsConstructor
@@ -14,12 +20,50 @@ import org.springframework.shell.standard.ShellMethod;
 public class CountCommand {
 
     private final BoardHolder boardHolder;
+    private final SolverEngines solverEngines;
     private final Solver solver;
+    private final BranchingStrategies branchingStrategies;
 
     @ShellMethod("Count the possible solutions")
-    public void countSolutions() {
+    public void countSolutions(@ShellOption(defaultValue = SolverEngines.DEFAULT,
+                                       help = "The solver engine to use: backtracking, dlx or portfolio") String engine,
+                               @ShellOption(defaultValue = "0",
+                                       help = "Stop counting once this many solutions are found, 0 for no limit") long limit,
+                               @ShellOption(defaultValue = "0",
+                                       help = "Stop counting after this many milliseconds, 0 for no time limit") long timeout,
+                               @ShellOption(defaultValue = ShellOption.NULL,
+                                       help = "Branching strategy for the backtracking engine: mrv, mrv-degree, lcv or random-restarts") String branching) {
         SudokuBoard board = boardHolder.getBoard();
-        log.info("Found {} solutions", solver.findSolutions(board).size());
+        final SolverEngine solverEngine;
+        if (branching == null) {
+            solverEngine = solverEngines.get(engine);
+        } else {
+            SolveCommand.requireBacktracking(engine, "--branching");
+            solverEngine = SolveCommand.withBranching(solver, branchingStrategies, branching);
+        }
+        final SearchOutcome outcome = solverEngine.countSolutions(board,
+                limit > 0 ? limit : Long.MAX_VALUE, SolveCommand.token(timeout));
+        if (outcome.getStatus() == SearchStatus.TIMED_OUT) {
+            log.warn("Found at least {} solutions before running out of time", outcome.getFound());
+        } else if (outcome.getStatus() == SearchStatus.LIMIT_REACHED) {
+            log.info("Found at least {} solutions", outcome.getFound());
+        } else {
+            log.info("Found {} solutions", outcome.getFound());
+        }
+    }
+
+    @ShellMethod("Check whether the board has exactly one solution")
+    public void isUnique(@ShellOption(defaultValue = SolverEngines.DEFAULT,
+            help = "The solver engine to use: backtracking, dlx or portfolio") String engine) {
+        SudokuBoard board = boardHolder.getBoard();
+        final long count = solverEngines.get(engine).countSolutions(board, 2);
+        if (count == 0) {
+            log.info("The board has no solution");
+        } else if (count == 1) {
+            log.info("The board has a unique solution");
+        } else {
+            log.info("The board has more than one solution");
+        }
     }
 
 }
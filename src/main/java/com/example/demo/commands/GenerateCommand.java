@@ -0,0 +1,36 @@
+package com.example.demo.commands;
+
+import com.example.demo.service.generator.Difficulty;
+import com.example.demo.service.generator.GenerationResult;
+import com.example.demo.service.generator.PuzzleGenerator;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.shell.standard.ShellComponent;
+import org.springframework.shell.standard.ShellMethod;
+import org.springframework.shell.standard.ShellOption;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Locale;
+
+@ShellComponent
+@AllArgsConstructor
+@Slf4j
+public class GenerateCommand {
+
+    private final PuzzleGenerator puzzleGenerator;
+
+    @ShellMethod("Generate puzzles with a unique solution into a file, one 81 character puzzle per line")
+    public void generate(String output,
+                         @ShellOption(defaultValue = "10", help = "The number of puzzles") long count,
+                         @ShellOption(defaultValue = "medium",
+                                 help = "easy (singles only), medium (no guessing) or hard (needs search)") String difficulty)
+            throws IOException, InterruptedException {
+        final GenerationResult result = puzzleGenerator.generateFile(Paths.get(output), count,
+                Difficulty.valueOf(difficulty.toUpperCase(Locale.ROOT)));
+        log.info("Generated {} {} puzzles in {}ms ({} puzzles/sec), {} given up on",
+                result.getPuzzles(), difficulty, result.getElapsedNanos() / 1_000_000,
+                Math.round(result.getPuzzlesPerSecond()), result.getFailed());
+    }
+
+}
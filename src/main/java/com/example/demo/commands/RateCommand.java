@@ -0,0 +1,97 @@
+package com.example.demo.commands;
+
+import com.example.demo.model.CandidateGrid;
+import com.example.demo.model.GridFormat;
+import com.example.demo.service.BoardHolder;
+import com.example.demo.service.Solver;
+import com.example.demo.service.batch.PuzzleReader;
+import com.example.demo.service.rating.PuzzleRater;
+import com.example.demo.service.rating.Rating;
+import com.example.demo.service.rating.RatingResult;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.shell.standard.ShellComponent;
+import org.springframework.shell.standard.ShellMethod;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+@ShellComponent
+@AllArgsConstructor
+@Slf4j
+public class RateCommand {
+
+    private final BoardHolder boardHolder;
+    private final PuzzleRater puzzleRater;
+    private final Solver solver;
+
+    @ShellMethod("Rate the board by the techniques it takes to solve it by hand")
+    public void rate() {
+        final Rating rating = puzzleRater.rate(boardHolder.getBoard());
+        if (rating.isContradiction()) {
+            log.warn("The board has no solution, found after {}", rating.getHistogram());
+            return;
+        }
+        if (!rating.isSolved()) {
+            log.warn("The techniques got stuck after {}, the board needs search (score {})",
+                    rating.getHistogram(), rating.getScore());
+            return;
+        }
+        if (PuzzleRater.NONE.equals(rating.getHardest())) {
+            log.info("The board is solved already, it needs no technique");
+            return;
+        }
+        log.info("Score {} ({}), hardest technique {}, passes per technique {}", rating.getScore(),
+                rating.getDifficulty(), rating.getHardest(), rating.getHistogram());
+    }
+
+    @ShellMethod("Rate every puzzle of a file, writing the score, hardest technique and passes per technique of each")
+    public void rateFile(String input, String output) throws IOException, InterruptedException {
+        final RatingResult result = puzzleRater.rateFile(Paths.get(input), Paths.get(output));
+        log.info("Rated {} puzzles in {}ms ({} puzzles/sec), {} stuck, {} invalid; by hardest technique {}",
+                result.getPuzzles(), result.getElapsedNanos() / 1_000_000, Math.round(result.getPuzzlesPerSecond()),
+                result.getStuck(), result.getInvalid(), result.getHardest());
+    }
+
+    @ShellMethod("Check on every puzzle of a file that no technique of the rating ladder rules out its solution")
+    public void rateCheck(String input) throws IOException {
+        long checked = 0;
+        long unsolvable = 0;
+        long unsound = 0;
+        try (PuzzleReader puzzles = PuzzleReader.open(Paths.get(input))) {
+            String line;
+            while ((line = puzzles.next()) != null) {
+                final CandidateGrid puzzle;
+                try {
+                    puzzle = GridFormat.parse(line);
+                } catch (IllegalArgumentException e) {
+                    log.debug("Skipping invalid puzzle '{}': {}", line, e.getMessage());
+                    continue;
+                }
+                final AtomicReference<CandidateGrid> solution = new AtomicReference<>();
+                solver.search(puzzle, s -> {
+                    solution.set(s.copy());
+                    return false;
+                });
+                if (solution.get() == null) {
+                    unsolvable++;
+                    continue;
+                }
+                checked++;
+                final Optional<String> technique = puzzleRater.findUnsoundStep(puzzle, solution.get());
+                if (technique.isPresent()) {
+                    unsound++;
+                    log.error("{} ruled out the solution of {}", technique.get(), line);
+                }
+            }
+        }
+        if (unsound > 0) {
+            log.error("{} of {} puzzles lost their solution, {} had none to check", unsound, checked, unsolvable);
+        } else {
+            log.info("No technique ruled out a solution in {} puzzles, {} had none to check", checked, unsolvable);
+        }
+    }
+
+}
@@ -13,7 +13,7 @@ import org.springframework.shell.standard.ShellMethod;
 @AllArgsConstructor
 public class SampleCommand {
 
-    private static final int[][] SAMPLE1 = {
+    public static final int[][] SAMPLE1 = {
             { 0, 0, 6, /**/ 0, 3, 1, /**/ 0, 7, 0 },
             { 4, 3, 7, /**/ 0, 0, 5, /**/ 0, 0, 0 },
             { 0, 1, 0, /**/ 4, 6, 7, /**/ 0, 0, 8 },
@@ -28,7 +28,7 @@ public class SampleCommand {
     };
 
     //20 Aug problem
-    private static final int[][] SAMPLE2 = {
+    public static final int[][] SAMPLE2 = {
             { 0, 0, 0, /**/ 0, 0, 0, /**/ 0, 0, 6 },
             { 0, 9, 0, /**/ 3, 5, 0, /**/ 0, 7, 0 },
             { 0, 0, 0, /**/ 7, 0, 2, /**/ 0, 4, 0 },
@@ -55,7 +55,10 @@ public class SampleCommand {
     }
 
     private void load(int[][] data) throws ValueAlreadySetException {
-        SudokuBoard board = SudokuBoard.empty();
+        boardHolder.setBoard(toBoard(SudokuBoard.empty(), data));
+    }
+
+    public static SudokuBoard toBoard(SudokuBoard board, int[][] data) throws ValueAlreadySetException {
         for (int row = 0; row < 9; row++) {
             for (int col = 0; col < 9; col++) {
                 int value = data[row][col];
@@ -64,7 +67,7 @@ public class SampleCommand {
                 }
             }
         }
-        boardHolder.setBoard(board);
+        return board;
     }
 
 }
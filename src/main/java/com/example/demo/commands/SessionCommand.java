@@ -0,0 +1,55 @@
+package com.example.demo.commands;
+
+import com.example.demo.model.BoardSnapshot;
+import com.example.demo.service.BoardHolder;
+import com.example.demo.service.BoardRenderer;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.shell.standard.ShellComponent;
+import org.springframework.shell.standard.ShellMethod;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+@ShellComponent
+@AllArgsConstructor
+@Slf4j
+public class SessionCommand {
+
+    private final BoardHolder boardHolder;
+    private final BoardRenderer boardRenderer;
+
+    @ShellMethod("Save the board and its candidates to a file")
+    public void saveBoard(String file) throws IOException {
+        BoardSnapshot.save(boardHolder.getBoard(), Paths.get(file));
+        log.info("Saved session '{}' to {}", boardHolder.getSession(), file);
+    }
+
+    @ShellMethod("Load a saved board into the current session")
+    public void loadBoard(String file) throws IOException {
+        final long start = System.nanoTime();
+        boardHolder.setBoard(BoardSnapshot.load(Paths.get(file)));
+        log.info("Loaded {} into session '{}' in {}us", file, boardHolder.getSession(),
+                (System.nanoTime() - start) / 1_000);
+        boardRenderer.render(boardHolder.getBoard());
+    }
+
+    @ShellMethod("Switch to a named session, starting it with an empty board when it is new")
+    public void session(String name) {
+        boardHolder.switchTo(name);
+        boardRenderer.render(boardHolder.getBoard());
+    }
+
+    @ShellMethod("List the sessions")
+    public void sessions() {
+        for (final String name : boardHolder.getSessions()) {
+            log.info("{}{}", name, name.equals(boardHolder.getSession()) ? " (current)" : "");
+        }
+    }
+
+    @ShellMethod("Remove a session")
+    public void removeSession(String name) {
+        boardHolder.remove(name);
+    }
+
+}
@@ -1,41 +1,198 @@
 package com.example.demo.commands;
 
+import com.example.demo.exception.SearchStoppedException;
+import com.example.demo.model.CandidateGrid;
+import com.example.demo.model.Geometry;
+import com.example.demo.model.GridFormat;
 import com.example.demo.model.SudokuBoard;
+import com.example.demo.model.Variant;
 import com.example.demo.service.BoardHolder;
 import com.example.demo.service.BoardRenderer;
+import com.example.demo.service.CancellationToken;
+import com.example.demo.service.SearchOutcome;
+import com.example.demo.service.SolutionIterator;
+import com.example.demo.service.SolutionPublisher;
+import com.example.demo.service.SolveStats;
 import com.example.demo.service.Solver;
-import lombok.AllArgsConstructor;
+import com.example.demo.service.SolverEngines;
+import com.example.demo.service.branching.BranchingStrategies;
+import com.example.demo.service.propagation.Propagator;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.shell.standard.ShellComponent;
 import org.springframework.shell.standard.ShellMethod;
+import org.springframework.shell.standard.ShellOption;
 import org.springframework.util.StopWatch;
 
-import java.util.Set;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
 
 @ShellComponent
-@AllArgsConstructor
 @Slf4j
 public class SolveCommand {
 
+    //Solutions past this are counted but not drawn:
+    private static final int MAX_RENDERED = 10;
+    private static final long STATS_WAIT_SECONDS = 5;
+
     private final BoardHolder boardHolder;
     private final Solver solver;
+    private final SolverEngines solverEngines;
+    private final Propagator propagator;
     private final BoardRenderer boardRenderer;
+    private final ExecutorService solutionExecutor;
+    private final BranchingStrategies branchingStrategies;
+
+    public SolveCommand(BoardHolder boardHolder, Solver solver, SolverEngines solverEngines, Propagator propagator,
+                        BoardRenderer boardRenderer, @Qualifier("solutionExecutor") ExecutorService solutionExecutor,
+                        BranchingStrategies branchingStrategies) {
+        this.boardHolder = boardHolder;
+        this.solver = solver;
+        this.solverEngines = solverEngines;
+        this.propagator = propagator;
+        this.boardRenderer = boardRenderer;
+        this.solutionExecutor = solutionExecutor;
+        this.branchingStrategies = branchingStrategies;
+    }
 
-    @ShellMethod("Solve the possible board")
-    public void solveBoard() {
+    @ShellMethod("Solve the possible board, showing the solutions as they are found")
+    public void solveBoard(@ShellOption(defaultValue = SolverEngines.DEFAULT,
+                                   help = "The solver engine to use: backtracking, dlx or portfolio") String engine,
+                           @ShellOption(defaultValue = ShellOption.NULL,
+                                   help = "Comma separated propagation rules for the backtracking engine, defaults to all of them") String rules,
+                           @ShellOption(defaultValue = ShellOption.NULL,
+                                   help = "Branching strategy for the backtracking engine: mrv, mrv-degree, lcv or random-restarts") String branching,
+                           @ShellOption(defaultValue = "0",
+                                   help = "Stop searching after this many milliseconds, 0 for no time limit") long timeout,
+                           @ShellOption(defaultValue = "10",
+                                   help = "Stop after this many solutions, 0 to count every solution without showing more than 10") long limit) {
         final SudokuBoard board = boardHolder.getBoard();
+        final CancellationToken token = token(timeout);
+        final SolutionPublisher publisher;
+        if (rules == null && branching == null) {
+            publisher = solverEngines.get(engine).solutions(board, token, solutionExecutor);
+        } else {
+            requireBacktracking(engine, rules != null ? "--rules" : "--branching");
+            final Solver branchingSolver = withBranching(solver, branchingStrategies, branching);
+            final Propagator rulesPropagator = rules == null ? propagator : propagator.only(Arrays.asList(rules.split(",")));
+            publisher = branchingSolver.solutions(board, rulesPropagator, token, solutionExecutor);
+        }
+        final CompletableFuture<SearchOutcome> outcome = new CompletableFuture<>();
+        final long start = System.nanoTime();
+        long found = 0;
+        //Only asks for the next solution once the last one is shown, the search waits in between:
+        try (SolutionIterator solutions = new SolutionIterator(publisher.withOutcome(outcome))) {
+            while ((limit == 0 || found < limit) && solutions.hasNext()) {
+                final SudokuBoard solution = solutions.next();
+                if (found++ < MAX_RENDERED) {
+                    log.info("Solution {} after {}ms", found, millisSince(start));
+                    boardRenderer.render(solution);
+                }
+            }
+        } catch (SearchStoppedException e) {
+            log.warn("The search stopped early ({}), these are the solutions found until then", e.getStatus());
+        }
+        if (limit > 0 && found == limit) {
+            log.info("Stopped after {} solutions in {}ms, there may be more", found, millisSince(start));
+        } else {
+            log.info("Found {} solutions in {}ms", found, millisSince(start));
+        }
+        logStats(outcome);
+    }
+
+    //Closing the iterator stopped the search, which gets to its outcome within a few nodes:
+    private static void logStats(final CompletableFuture<SearchOutcome> outcome) {
+        final SolveStats stats;
+        try {
+            stats = outcome.get(STATS_WAIT_SECONDS, TimeUnit.SECONDS).getStats();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (ExecutionException | TimeoutException e) {
+            log.debug("No search statistics: {}", e.toString());
+            return;
+        }
+        log.info("Search: {} nodes expanded, max depth {}, {} backtracks, {} eliminations, {} forks, {}ms propagating of {}ms",
+                stats.getNodes(), stats.getMaxDepth(), stats.getBacktracks(), stats.getEliminations(), stats.getForks(),
+                stats.getPropagationNanos() / 1_000_000, stats.getElapsedNanos() / 1_000_000);
+    }
+
+    private static long millisSince(final long start) {
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    static Solver withBranching(final Solver solver, final BranchingStrategies branchingStrategies,
+                                final String branching) {
+        return branching == null ? solver : solver.withBranching(branchingStrategies.get(branching));
+    }
+
+    //The other engines have no propagation rules or branching to pick, the option would silently do nothing:
+    static void requireBacktracking(final String engine, final String option) {
+        if (!Solver.NAME.equals(engine)) {
+            throw new IllegalArgumentException(option + " only applies to the " + Solver.NAME + " engine, not to "
+                    + engine);
+        }
+    }
+
+    static CancellationToken token(final long timeoutMillis) {
+        return timeoutMillis > 0 ? CancellationToken.withBudget(Duration.ofMillis(timeoutMillis)) : CancellationToken.NONE;
+    }
+
+    @ShellMethod("Solve a grid of any size (4x4, 9x9, 16x16, 25x25...) given on a single line, '.' for an empty cell")
+    public void solveGrid(String puzzle) {
+        final CandidateGrid grid = GridFormat.parse(puzzle);
+        final AtomicReference<CandidateGrid> solution = new AtomicReference<>();
         StopWatch stopWatch = new StopWatch();
         stopWatch.start();
-        final Set<SudokuBoard> solutions = solver.findSolutions(board);
+        solver.search(grid, s -> {
+            solution.set(s.copy());
+            return false;
+        });
         stopWatch.stop();
-        if (solutions.size() < 10) {
-            log.info("Found {} solutions in {}ms", solutions.size(), stopWatch.getTotalTimeMillis());
-            for (SudokuBoard sboard : solutions) {
-                boardRenderer.render(sboard);
-            }
-        } else {
-            log.warn("Found {} solutions in {}ms", solutions.size(), stopWatch.getTotalTimeMillis());
+        if (solution.get() == null) {
+            log.warn("No solution found in {}ms", stopWatch.getTotalTimeMillis());
+            return;
+        }
+        log.info("Solved in {}ms:{}", stopWatch.getTotalTimeMillis(), rows(solution.get()));
+    }
+
+    @ShellMethod("Solve a variant puzzle (diagonal, jigsaw:<regions> or killer:<cages>:<sums>) given on a single line")
+    public void solveVariant(@ShellOption(help = "The variant, as described in the README") String variant,
+                             @ShellOption(help = "The clues, '.' for an empty cell") String puzzle) {
+        final CandidateGrid grid = Variant.parse(variant, Geometry.ofCells(puzzle.length()).getBoxSize())
+                .parsePuzzle(puzzle);
+        final List<CandidateGrid> solutions = new ArrayList<>(2);
+        StopWatch stopWatch = new StopWatch();
+        stopWatch.start();
+        //A second solution only needs to be found, not kept:
+        solver.search(grid, s -> solutions.add(s.copy()) && solutions.size() < 2);
+        stopWatch.stop();
+        if (solutions.isEmpty()) {
+            log.warn("No solution found in {}ms", stopWatch.getTotalTimeMillis());
+            return;
+        }
+        if (solutions.size() > 1) {
+            log.warn("The puzzle has more than one solution, this is one of them");
+        }
+        log.info("Solved in {}ms:{}", stopWatch.getTotalTimeMillis(), rows(solutions.get(0)));
+    }
+
+    private static String rows(final CandidateGrid solution) {
+        final String line = GridFormat.format(solution);
+        final int size = solution.getGeometry().getSize();
+        final StringBuilder rows = new StringBuilder();
+        for (int row = 0; row < size; row++) {
+            rows.append('\n').append(line, row * size, (row + 1) * size);
         }
+        return rows.toString();
     }
 
 }
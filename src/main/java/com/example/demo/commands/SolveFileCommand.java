@@ -0,0 +1,38 @@
+package com.example.demo.commands;
+
+import com.example.demo.config.BatchProperties;
+import com.example.demo.service.SolverEngines;
+import com.example.demo.service.batch.BatchResult;
+import com.example.demo.service.batch.BatchSolver;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.shell.standard.ShellComponent;
+import org.springframework.shell.standard.ShellMethod;
+import org.springframework.shell.standard.ShellOption;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+@ShellComponent
+@AllArgsConstructor
+@Slf4j
+public class SolveFileCommand {
+
+    private final BatchSolver batchSolver;
+    private final BatchProperties batchProperties;
+    private final SolverEngines solverEngines;
+
+    @ShellMethod("Solve every puzzle of a file, one 81 character puzzle per line")
+    public void solveFile(String input,
+                          String output,
+                          @ShellOption(defaultValue = ShellOption.NULL,
+                                  help = "The solver engine to use, defaults to the batch.engine property") String engine)
+            throws IOException, InterruptedException {
+        final BatchResult result = batchSolver.solveFile(Paths.get(input), Paths.get(output),
+                solverEngines.get(engine == null ? batchProperties.getEngine() : engine));
+        log.info("Solved {} of {} puzzles in {}ms ({} puzzles/sec), {} unsolvable, {} invalid",
+                result.getSolved(), result.getPuzzles(), result.getElapsedNanos() / 1_000_000,
+                Math.round(result.getPuzzlesPerSecond()), result.getUnsolvable(), result.getInvalid());
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "api")
+public class ApiProperties {
+
+    //Threads solving the puzzles of HTTP requests, so searches never run on the request threads:
+    private int workers = Runtime.getRuntime().availableProcessors();
+
+    //Puzzles waiting for a worker; requests beyond that are turned away as unavailable:
+    private int queueCapacity = 1024;
+
+    //Longest a request may search before it is cancelled:
+    private Duration timeout = Duration.ofSeconds(10);
+
+    //Most puzzles in one batch request:
+    private int maxBatchSize = 1000;
+
+    //Solutions counted when a count request does not give a limit, and the most it may ask for:
+    private long countLimit = 1000;
+    private long maxCountLimit = 1_000_000;
+
+}
@@ -0,0 +1,26 @@
+package com.example.demo.config;
+
+import com.example.demo.service.DancingLinksSolver;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "batch")
+public class BatchProperties {
+
+    //When set, the application solves this file and exits instead of starting the shell:
+    private String input;
+
+    private String output;
+
+    private String engine = DancingLinksSolver.NAME;
+
+    private int workers = Runtime.getRuntime().availableProcessors();
+
+    //Puzzles read ahead of the writer; the reader blocks once this many are in flight:
+    private int queueCapacity = 4096;
+
+    //Classic puzzles propagated together by one worker, 0 hands every puzzle to the engine on its own:
+    private int lockstepLanes = 256;
+
+}
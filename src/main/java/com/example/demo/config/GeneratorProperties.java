@@ -0,0 +1,21 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "generator")
+public class GeneratorProperties {
+
+    private int workers = Runtime.getRuntime().availableProcessors();
+
+    //Most puzzles generated per second over all workers, 0 for as fast as possible:
+    private double rate = 0;
+
+    //Remove clues in pairs mirrored through the centre, as printed puzzles usually are:
+    private boolean symmetric = true;
+
+    //Filled grids tried for one puzzle before giving up on the requested difficulty:
+    private int maxAttempts = 1000;
+
+}
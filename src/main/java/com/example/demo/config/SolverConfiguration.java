@@ -0,0 +1,57 @@
+package com.example.demo.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@EnableConfigurationProperties({ SolverProperties.class, BatchProperties.class, GeneratorProperties.class,
+        ApiProperties.class })
+public class SolverConfiguration {
+
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool solverPool(SolverProperties solverProperties) {
+        return new ForkJoinPool(solverProperties.getParallelism());
+    }
+
+    //Bounded on both threads and queue: a full queue rejects the request instead of piling up searches:
+    @Bean(destroyMethod = "shutdownNow")
+    public ThreadPoolExecutor apiExecutor(ApiProperties apiProperties) {
+        return new ThreadPoolExecutor(apiProperties.getWorkers(), apiProperties.getWorkers(), 0, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(apiProperties.getQueueCapacity()), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    //Runs the members of portfolio solves, each searching on the thread running it.
+    //Bounded like the apiExecutor, so a burst of portfolio requests is rejected instead of starting a thread per
+    //member. Wrapped, so it is not a second ThreadPoolExecutor to inject next to the apiExecutor:
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService portfolioExecutor(SolverProperties solverProperties) {
+        return Executors.unconfigurableExecutorService(new ThreadPoolExecutor(solverProperties.getPortfolioWorkers(),
+                solverProperties.getPortfolioWorkers(), 0, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(solverProperties.getPortfolioQueueCapacity()), new ThreadPoolExecutor.AbortPolicy()));
+    }
+
+    //Runs the searches streaming solutions to the shell, each parked whenever its reader stops asking:
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService solutionExecutor() {
+        return Executors.unconfigurableExecutorService(Executors.newCachedThreadPool());
+    }
+
+    //Keeps the meters in memory unless a registry that ships them somewhere is configured:
+    @Bean
+    @ConditionalOnMissingBean
+    public MeterRegistry meterRegistry() {
+        return new SimpleMeterRegistry();
+    }
+
+}
@@ -0,0 +1,46 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.Arrays;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "solver")
+public class SolverProperties {
+
+    //Threads of the pool the search runs on, defaults to one per core:
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    //Branches are only forked as separate tasks up to this search depth...
+    private int splitDepth = 4;
+
+    //...and while at least this many cells are still unsolved; smaller subtrees are searched sequentially:
+    private int splitThreshold = 30;
+
+    //Search each sequential subtree on one grid, undoing every branch through a trail, instead of copying the
+    //grid for every node:
+    private boolean undoTrail = true;
+
+    //How the backtracking search picks the cell to branch on and orders its values: mrv, mrv-degree, lcv or
+    //random-restarts:
+    private String branching = "mrv";
+
+    //Configurations the portfolio engine races on a puzzle, each searching sequentially on its own core: dlx, or a
+    //branching strategy with full propagation or, after a slash, only singles:
+    private List<String> portfolio = Arrays.asList(
+            "dlx", "mrv", "mrv-degree/singles", "lcv", "random-restarts", "random-restarts/singles");
+
+    //Threads running the members of portfolio races, and members waiting for one (at least one race's worth); a
+    //race beyond that is rejected, which the API answers as unavailable:
+    private int portfolioWorkers = Runtime.getRuntime().availableProcessors();
+    private int portfolioQueueCapacity = 256;
+
+    //Time the search phases and publish the statistics of every search as metrics:
+    private boolean metrics = false;
+
+    //Boards whose solutions are cached, 0 turns the cache off:
+    private int cacheSize = 10_000;
+
+}
@@ -0,0 +1,22 @@
+package com.example.demo.exception;
+
+import com.example.demo.service.SearchStatus;
+
+/**
+ * Ends a stream of solutions that stopped before every solution was found, because the cancellation token
+ * of the search ran out or was cancelled. The solutions streamed before it are still solutions.
+ */
+public class SearchStoppedException extends RuntimeException {
+
+    private final SearchStatus status;
+
+    public SearchStoppedException(SearchStatus status) {
+        super("The search stopped early: " + status);
+        this.status = status;
+    }
+
+    public SearchStatus getStatus() {
+        return status;
+    }
+
+}
@@ -0,0 +1,181 @@
+package com.example.demo.model;
+
+import com.example.demo.exception.ValueAlreadySetException;
+
+import java.util.*;
+
+public final class BitboardSudokuBoard extends SudokuBoard {
+
+    private static final int SIZE = Position.SIZE;
+    private static final int CELLS = Position.CELLS;
+    private static final int ALL_VALUES = (1 << SIZE) - 1;
+
+    //Layout of the state array: one slot per cell, then the used value masks of each row, col and box
+    private static final int ROW_MASKS = CELLS;
+    private static final int COL_MASKS = ROW_MASKS + SIZE;
+    private static final int BOX_MASKS = COL_MASKS + SIZE;
+    private static final int STATE_SIZE = BOX_MASKS + SIZE;
+
+    static final BitboardSudokuBoard EMPTY = new BitboardSudokuBoard(new short[STATE_SIZE], 0, true);
+
+    //Cells hold the value ordinal + 1, or 0 when the cell is not set:
+    private final short[] state;
+    private final int solvedCount;
+    private final boolean consistent;
+    private transient Boolean valid = null;
+
+    private BitboardSudokuBoard(short[] state, int solvedCount, boolean consistent) {
+        this.state = state;
+        this.solvedCount = solvedCount;
+        this.consistent = consistent;
+    }
+
+    /**
+     * Builds a board straight from cell values, without a chain of {@link #withValue} copies.
+     *
+     * @param cells per cell index the value ordinal + 1, or 0 for an empty cell
+     */
+    public static BitboardSudokuBoard of(final int[] cells) {
+        final short[] state = new short[STATE_SIZE];
+        int solvedCount = 0;
+        boolean consistent = true;
+        for (int cell = 0; cell < CELLS; cell++) {
+            final int value = cells[cell];
+            if (value != 0) {
+                final int row = ROW_MASKS + Position.rowOf(cell);
+                final int col = COL_MASKS + Position.colOf(cell);
+                final int box = BOX_MASKS + Position.boxOf(cell);
+                final int bit = 1 << (value - 1);
+                consistent &= ((state[row] | state[col] | state[box]) & bit) == 0;
+                state[cell] = (short) value;
+                state[row] |= bit;
+                state[col] |= bit;
+                state[box] |= bit;
+                solvedCount++;
+            }
+        }
+        return new BitboardSudokuBoard(state, solvedCount, consistent);
+    }
+
+    @Override
+    public SudokuBoard withValue(final Position position, final Value value) throws ValueAlreadySetException {
+        final int cell = position.index();
+        final int current = state[cell];
+        if (current != 0) {
+            if (current == value.ordinal() + 1) {
+                return this;
+            } else {
+                throw new ValueAlreadySetException();
+            }
+        }
+        final int row = ROW_MASKS + Position.rowOf(cell);
+        final int col = COL_MASKS + Position.colOf(cell);
+        final int box = BOX_MASKS + Position.boxOf(cell);
+        final int bit = value.mask();
+        //A value already used in one of the units makes this board (and all its children) inconsistent:
+        final boolean childConsistent = consistent
+                && ((state[row] | state[col] | state[box]) & bit) == 0;
+
+        final short[] childState = state.clone();
+        childState[cell] = (short) (value.ordinal() + 1);
+        childState[row] |= bit;
+        childState[col] |= bit;
+        childState[box] |= bit;
+        return new BitboardSudokuBoard(childState, solvedCount + 1, childConsistent);
+    }
+
+    @Override
+    protected Value[] getValues() {
+        final Value[] values = new Value[CELLS];
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (state[cell] != 0) {
+                values[cell] = Value.of(state[cell] - 1);
+            }
+        }
+        return values;
+    }
+
+    @Override
+    public Optional<Value> getValue(Position position) {
+        final int current = state[position.index()];
+        return current == 0 ? Optional.empty() : Optional.of(Value.of(current - 1));
+    }
+
+    @Override
+    public Set<Position> getUnsolvedPositions() {
+        final Set<Position> unsolved = new HashSet<>();
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (state[cell] == 0) {
+                unsolved.add(Position.ofIndex(cell));
+            }
+        }
+        return unsolved;
+    }
+
+    @Override
+    public EnumSet<Value> getPossibleValues(final Position position) {
+        final int current = state[position.index()];
+        if (current != 0) {
+            return EnumSet.of(Value.of(current - 1));
+        }
+        final EnumSet<Value> possibleValues = EnumSet.noneOf(Value.class);
+        int mask = getCandidateMask(position);
+        while (mask != 0) {
+            possibleValues.add(Value.of(Integer.numberOfTrailingZeros(mask)));
+            mask &= mask - 1;
+        }
+        return possibleValues;
+    }
+
+    /**
+     * Allocation free variant of {@link #getPossibleValues(Position)}: bit n is set when
+     * {@code Value.of(n)} can still be placed in the cell.
+     */
+    public int getCandidateMask(final Position position) {
+        final int current = state[position.index()];
+        if (current != 0) {
+            return 1 << (current - 1);
+        }
+        return candidateMask(position.index());
+    }
+
+    @Override
+    int getCandidateMask(final int cell) {
+        final int current = state[cell];
+        return current != 0 ? 1 << (current - 1) : candidateMask(cell);
+    }
+
+    private int candidateMask(int cell) {
+        final int used = state[ROW_MASKS + Position.rowOf(cell)]
+                | state[COL_MASKS + Position.colOf(cell)]
+                | state[BOX_MASKS + Position.boxOf(cell)];
+        return ~used & ALL_VALUES;
+    }
+
+    @Override
+    public boolean isSolved() {
+        return solvedCount == CELLS;
+    }
+
+    @Override
+    public boolean isValid() {
+        if (valid == null) {
+            valid = computeValid();
+        }
+        return valid;
+    }
+
+    private boolean computeValid() {
+        if (!consistent) {
+            return false;
+        }
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (state[cell] == 0 && candidateMask(cell) == 0) {
+                //no possible value for this cell:
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,251 @@
+package com.example.demo.model;
+
+import lombok.SneakyThrows;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Mutable working state of a search: the value and the remaining candidate mask of every cell,
+ * addressed by cell index ({@code row * size + col}) of the grid's {@link Geometry}. Bit n of a mask
+ * stands for value n, which is {@code Value.of(n)} on the classic 9x9 grid.
+ * <p>
+ * After {@link #startTrail()} every change is recorded, so a search can take a {@link #mark()}, try a branch
+ * and {@link #undo(int)} it on the same grid instead of working on a copy per node.
+ */
+public final class CandidateGrid {
+
+    private final Geometry geometry;
+    //0 when not set, otherwise the value + 1:
+    private final int[] values;
+    private final long[] candidates;
+    private int solvedCount;
+    private boolean contradiction;
+    //Candidates removed since this grid was created or copied:
+    private long eliminations;
+    //The cells changed since the trail was started with their previous candidates, ~cell for a cell that was set:
+    private int[] trailCells;
+    private long[] trailCandidates;
+    private int trailSize;
+
+    private CandidateGrid(Geometry geometry, int[] values, long[] candidates, int solvedCount, boolean contradiction) {
+        this.geometry = geometry;
+        this.values = values;
+        this.candidates = candidates;
+        this.solvedCount = solvedCount;
+        this.contradiction = contradiction;
+    }
+
+    public static CandidateGrid empty() {
+        return empty(Geometry.CLASSIC);
+    }
+
+    public static CandidateGrid empty(final Geometry geometry) {
+        final long[] candidates = new long[geometry.getCells()];
+        Arrays.fill(candidates, geometry.getAllValues());
+        return new CandidateGrid(geometry, new int[geometry.getCells()], candidates, 0, false);
+    }
+
+    public static CandidateGrid of(final SudokuBoard board) {
+        final CandidateGrid grid = empty();
+        for (int cell = 0; cell < Position.CELLS; cell++) {
+            final Optional<Value> value = board.getValue(Position.ofIndex(cell));
+            if (value.isPresent() && !grid.assign(cell, value.get().ordinal())) {
+                break;
+            }
+        }
+        return grid;
+    }
+
+    public CandidateGrid copy() {
+        return new CandidateGrid(geometry, values.clone(), candidates.clone(), solvedCount, contradiction);
+    }
+
+    /**
+     * Records every change from now on, for {@link #undo(int)}. Copies do not inherit the trail.
+     */
+    public CandidateGrid startTrail() {
+        if (trailCells == null) {
+            trailCells = new int[geometry.getCells() * 4];
+            trailCandidates = new long[trailCells.length];
+        }
+        return this;
+    }
+
+    /**
+     * The point to {@link #undo(int)} back to, only taken while the grid has no contradiction.
+     */
+    public int mark() {
+        if (trailCells == null || contradiction) {
+            throw new IllegalStateException("Marks need a started trail and a grid without contradiction");
+        }
+        return trailSize;
+    }
+
+    /**
+     * Restores the values and candidates as they were at the mark, clearing any contradiction found since.
+     * The eliminations count is statistics and is not rolled back.
+     */
+    public void undo(final int mark) {
+        while (trailSize > mark) {
+            trailSize--;
+            final int cell = trailCells[trailSize];
+            if (cell < 0) {
+                values[~cell] = 0;
+                candidates[~cell] = trailCandidates[trailSize];
+                solvedCount--;
+            } else {
+                candidates[cell] = trailCandidates[trailSize];
+            }
+        }
+        contradiction = false;
+    }
+
+    private void record(final int entry, final long previous) {
+        if (trailSize == trailCells.length) {
+            trailCells = Arrays.copyOf(trailCells, trailSize * 2);
+            trailCandidates = Arrays.copyOf(trailCandidates, trailSize * 2);
+        }
+        trailCells[trailSize] = entry;
+        trailCandidates[trailSize] = previous;
+        trailSize++;
+    }
+
+    public Geometry getGeometry() {
+        return geometry;
+    }
+
+    public boolean isSet(int cell) {
+        return values[cell] != 0;
+    }
+
+    public int getValue(int cell) {
+        return values[cell] - 1;
+    }
+
+    public long getCandidates(int cell) {
+        return candidates[cell];
+    }
+
+    public boolean isSolved() {
+        return solvedCount == geometry.getCells() && !contradiction;
+    }
+
+    public boolean hasContradiction() {
+        return contradiction;
+    }
+
+    public void markContradiction() {
+        contradiction = true;
+    }
+
+    public int getSolvedCount() {
+        return solvedCount;
+    }
+
+    public long getEliminations() {
+        return eliminations;
+    }
+
+    /**
+     * Places the value and removes it from the candidates of all peers.
+     * Returns false when the grid is (or becomes) contradictory.
+     */
+    public boolean assign(int cell, int value) {
+        if (contradiction) {
+            return false;
+        }
+        final long bit = 1L << value;
+        if (values[cell] != 0) {
+            if (values[cell] != value + 1) {
+                contradiction = true;
+            }
+            return !contradiction;
+        }
+        if ((candidates[cell] & bit) == 0) {
+            contradiction = true;
+            return false;
+        }
+        if (trailCells != null) {
+            record(~cell, candidates[cell]);
+        }
+        values[cell] = value + 1;
+        candidates[cell] = bit;
+        solvedCount++;
+        for (final int peer : geometry.peersOf(cell)) {
+            if (values[peer] == value + 1) {
+                contradiction = true;
+            } else if (values[peer] == 0 && (candidates[peer] & bit) != 0) {
+                if (trailCells != null) {
+                    record(peer, candidates[peer]);
+                }
+                candidates[peer] &= ~bit;
+                eliminations++;
+                if (candidates[peer] == 0) {
+                    contradiction = true;
+                }
+            }
+        }
+        return !contradiction;
+    }
+
+    /**
+     * Removes the values in the mask from the candidates of the cell.
+     * Returns true when any candidate was removed.
+     */
+    public boolean eliminate(int cell, long mask) {
+        final long remaining = candidates[cell] & ~mask;
+        if (remaining == candidates[cell]) {
+            return false;
+        }
+        eliminations += Long.bitCount(candidates[cell] & mask);
+        if (values[cell] != 0 || remaining == 0) {
+            //Either the placed value or the last candidate was removed:
+            contradiction = true;
+            return true;
+        }
+        if (trailCells != null) {
+            record(cell, candidates[cell]);
+        }
+        candidates[cell] = remaining;
+        return true;
+    }
+
+    /**
+     * Returns the unset cell with the fewest candidates, or -1 when every cell is set.
+     */
+    public int getFewestCandidatesCell() {
+        int best = -1;
+        int bestCount = Integer.MAX_VALUE;
+        for (int cell = 0; cell < values.length; cell++) {
+            if (values[cell] == 0) {
+                final int count = Long.bitCount(candidates[cell]);
+                if (count < bestCount) {
+                    best = cell;
+                    bestCount = count;
+                    if (count == 1) {
+                        break;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Applies the values of this (classic 9x9) grid that are not yet on the board.
+     */
+    @SneakyThrows
+    public SudokuBoard applyTo(SudokuBoard board) {
+        if (geometry != Geometry.CLASSIC) {
+            throw new IllegalStateException("Only a " + Position.SIZE + "x" + Position.SIZE + " grid fits on a board");
+        }
+        for (int cell = 0; cell < Position.CELLS; cell++) {
+            if (values[cell] != 0) {
+                board = board.withValue(Position.ofIndex(cell), Value.of(values[cell] - 1));
+            }
+        }
+        return board;
+    }
+
+}
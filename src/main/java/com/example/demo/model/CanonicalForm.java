@@ -0,0 +1,277 @@
+package com.example.demo.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The smallest representative of a board under the sudoku symmetries that keep it a sudoku: transposing,
+ * reordering the bands and stacks, reordering the rows within a band and the cols within a stack, and
+ * relabelling the digits. Equivalent boards share the same key; the transformation found for a board maps
+ * its cells and digits to the key and back.
+ * <p>
+ * The key is the smallest single line form, comparing cells by label with empty cells sorting last (they are
+ * written as '0'). It is found by first fixing the smallest possible first row, which leaves few col orders,
+ * and then searching the row orders, abandoning every prefix that is already larger than the best one.
+ */
+public final class CanonicalForm {
+
+    private static final int SIZE = Position.SIZE;
+    private static final int CELLS = Position.CELLS;
+    private static final int BAND = 3;
+    //Empty cells sort after every label, so the key starts with the clues:
+    private static final int EMPTY = SIZE + 1;
+
+    //Every order of the 9 lines keeping the bands (or stacks) together, 6 band orders x 6^3 line orders:
+    private static final int[][] LINE_ORDERS;
+    static {
+        final int[][] triples = { {0, 1, 2}, {0, 2, 1}, {1, 0, 2}, {1, 2, 0}, {2, 0, 1}, {2, 1, 0} };
+        final List<int[]> orders = new ArrayList<>();
+        for (final int[] bands : triples) {
+            for (final int[] first : triples) {
+                for (final int[] second : triples) {
+                    for (final int[] third : triples) {
+                        final int[][] within = { first, second, third };
+                        final int[] order = new int[SIZE];
+                        for (int i = 0; i < SIZE; i++) {
+                            order[i] = bands[i / BAND] * BAND + within[i / BAND][i % BAND];
+                        }
+                        orders.add(order);
+                    }
+                }
+            }
+        }
+        LINE_ORDERS = orders.toArray(new int[0][]);
+    }
+
+    private final String key;
+    //Canonical cell i holds the value of cell cells[i] of the board...
+    private final int[] cells;
+    //...with digit d (1-9) relabelled to labels[d], and back through digits[label]:
+    private final int[] labels;
+    private final int[] digits;
+
+    private CanonicalForm(String key, int[] cells, int[] labels, int[] digits) {
+        this.key = key;
+        this.cells = cells;
+        this.labels = labels;
+        this.digits = digits;
+    }
+
+    public static CanonicalForm of(final SudokuBoard board) {
+        final int[] grid = new int[CELLS];
+        for (int cell = 0; cell < CELLS; cell++) {
+            final int index = cell;
+            board.getValue(Position.ofIndex(cell)).ifPresent(value -> grid[index] = value.ordinal() + 1);
+        }
+        return new Search(grid).run();
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * The board (normally a solution of the original board) in the canonical orientation and labels.
+     */
+    public String toCanonical(final SudokuBoard board) {
+        final char[] line = new char[CELLS];
+        for (int i = 0; i < CELLS; i++) {
+            line[i] = board.getValue(Position.ofIndex(cells[i]))
+                    .map(value -> (char) ('0' + labels[value.ordinal() + 1]))
+                    .orElse('0');
+        }
+        return new String(line);
+    }
+
+    /**
+     * Maps a board in the canonical orientation and labels back onto the original board.
+     */
+    public SudokuBoard fromCanonical(final SudokuBoard original, final String canonical) {
+        final char[] line = new char[CELLS];
+        for (int i = 0; i < CELLS; i++) {
+            final char c = canonical.charAt(i);
+            line[cells[i]] = PuzzleFormat.isEmptyCell(c) ? '.' : (char) ('0' + digits[c - '0']);
+        }
+        return PuzzleFormat.parse(original, new String(line));
+    }
+
+    private static class Search {
+
+        private final int[][] grids = new int[2][];
+        private final int[] best = new int[CELLS];
+        private final int[] current = new int[CELLS];
+        private boolean found;
+        //The output row from which the current prefix is smaller than the best one, SIZE while they are equal:
+        private int smallerFrom;
+        private int[] bestRows;
+        private int[] bestCols;
+        private int bestTransposed;
+        private int[] bestLabels;
+
+        //Per output row: the labelling after that row, the rows chosen and the number of labels used:
+        private final int[][] labels = new int[SIZE + 1][SIZE + 1];
+        private final int[] nextLabel = new int[SIZE + 1];
+        private final int[] rows = new int[SIZE];
+        private final boolean[] usedRows = new boolean[SIZE];
+        private int transposed;
+        private int[] cols;
+
+        private Search(int[] grid) {
+            grids[0] = grid;
+            grids[1] = new int[CELLS];
+            for (int cell = 0; cell < CELLS; cell++) {
+                grids[1][cell] = grid[(cell % SIZE) * SIZE + cell / SIZE];
+            }
+        }
+
+        private CanonicalForm run() {
+            //Labels follow the order of first appearance, so the first row only depends on where its clues are:
+            //the best first rows have the most clues in their fullest stack, then in the next one, and so on.
+            //Only the col orders moving those clues to the front are worth searching.
+            final List<int[]> starts = new ArrayList<>();
+            int bestPattern = -1;
+            for (int t = 0; t < 2; t++) {
+                for (int r = 0; r < SIZE; r++) {
+                    final int[] counts = new int[BAND];
+                    for (int c = 0; c < SIZE; c++) {
+                        if (grids[t][r * SIZE + c] != 0) {
+                            counts[c / BAND]++;
+                        }
+                    }
+                    Arrays.sort(counts);
+                    final int pattern = pattern(counts[2]) << 6 | pattern(counts[1]) << 3 | pattern(counts[0]);
+                    if (pattern > bestPattern) {
+                        bestPattern = pattern;
+                        starts.clear();
+                    }
+                    if (pattern == bestPattern) {
+                        starts.add(new int[] { t, r });
+                    }
+                }
+            }
+
+            for (final int[] start : starts) {
+                transposed = start[0];
+                for (final int[] order : LINE_ORDERS) {
+                    int occupied = 0;
+                    for (int c = 0; c < SIZE; c++) {
+                        occupied = occupied << 1 | (grids[transposed][start[1] * SIZE + order[c]] != 0 ? 1 : 0);
+                    }
+                    if (occupied != bestPattern) {
+                        continue;
+                    }
+                    cols = order;
+                    Arrays.fill(usedRows, false);
+                    nextLabel[0] = 1;
+                    Arrays.fill(labels[0], 0);
+                    labels[0][0] = EMPTY;
+                    smallerFrom = found ? SIZE : -1;
+                    place(0, start[1]);
+                }
+            }
+
+            final int[] cellMap = new int[CELLS];
+            for (int i = 0; i < CELLS; i++) {
+                final int r = bestRows[i / SIZE];
+                final int c = bestCols[i % SIZE];
+                cellMap[i] = bestTransposed == 0 ? r * SIZE + c : c * SIZE + r;
+            }
+            //Digits missing from the board take the remaining labels in order, solutions need all nine:
+            final int[] labelOf = bestLabels.clone();
+            labelOf[0] = 0;
+            int next = 1;
+            for (int digit = 1; digit <= SIZE; digit++) {
+                if (labelOf[digit] != 0) {
+                    next++;
+                }
+            }
+            for (int digit = 1; digit <= SIZE; digit++) {
+                if (labelOf[digit] == 0) {
+                    labelOf[digit] = next++;
+                }
+            }
+            final int[] digitOf = new int[SIZE + 1];
+            for (int digit = 1; digit <= SIZE; digit++) {
+                digitOf[labelOf[digit]] = digit;
+            }
+            final char[] key = new char[CELLS];
+            for (int i = 0; i < CELLS; i++) {
+                key[i] = best[i] == EMPTY ? '0' : (char) ('0' + best[i]);
+            }
+            return new CanonicalForm(new String(key), cellMap, labelOf, digitOf);
+        }
+
+        //Places a source row as output row out, then tries every row allowed to follow it:
+        private void place(final int out, final int source) {
+            final int[] grid = grids[transposed];
+            final int[] rowLabels = labels[out + 1];
+            System.arraycopy(labels[out], 0, rowLabels, 0, SIZE + 1);
+            int next = nextLabel[out];
+            int cmp = smallerFrom < out ? -1 : 0;
+            for (int c = 0; c < SIZE; c++) {
+                final int digit = grid[source * SIZE + cols[c]];
+                if (digit != 0 && rowLabels[digit] == 0) {
+                    rowLabels[digit] = next++;
+                }
+                final int label = rowLabels[digit];
+                current[out * SIZE + c] = label;
+                if (cmp == 0) {
+                    cmp = Integer.compare(label, best[out * SIZE + c]);
+                    if (cmp > 0) {
+                        return;
+                    }
+                }
+            }
+            if (cmp < 0 && smallerFrom >= out) {
+                smallerFrom = out;
+            }
+            nextLabel[out + 1] = next;
+            rows[out] = source;
+            usedRows[source] = true;
+            if (out == SIZE - 1) {
+                if (smallerFrom < SIZE) {
+                    record();
+                }
+            } else if (out % BAND != BAND - 1) {
+                //The rest of the band:
+                final int band = source / BAND * BAND;
+                for (int r = band; r < band + BAND; r++) {
+                    if (!usedRows[r]) {
+                        place(out + 1, r);
+                    }
+                }
+            } else {
+                //The first row of any band not used yet:
+                for (int r = 0; r < SIZE; r++) {
+                    if (!usedRows[r] && !usedRows[r / BAND * BAND] && !usedRows[r / BAND * BAND + 1]
+                            && !usedRows[r / BAND * BAND + 2]) {
+                        place(out + 1, r);
+                    }
+                }
+            }
+            usedRows[source] = false;
+            if (smallerFrom == out) {
+                smallerFrom = SIZE;
+            }
+        }
+
+        //The clues of a stack moved to its front, as 3 bits:
+        private static int pattern(int clues) {
+            return (0b111 << (BAND - clues)) & 0b111;
+        }
+
+        private void record() {
+            System.arraycopy(current, 0, best, 0, CELLS);
+            bestRows = rows.clone();
+            bestCols = cols;
+            bestTransposed = transposed;
+            bestLabels = labels[SIZE].clone();
+            found = true;
+            //The current prefix is the best one now:
+            smallerFrom = SIZE;
+        }
+
+    }
+
+}
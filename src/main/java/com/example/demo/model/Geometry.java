@@ -0,0 +1,376 @@
+package com.example.demo.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The shape of a grid with boxes of k x k cells: k^2 rows, cols, boxes and values. Cells are addressed by
+ * index ({@code row * size + col}) and values by bit position in a {@code long} candidate mask, which limits
+ * the box size to 8 (64 values). The tables are built once per box size and shared, they must not be modified.
+ * <p>
+ * A {@link Variant} compiles into a geometry of its own, with irregular regions in place of the boxes, extra
+ * units (the diagonals) and cages, so the search runs on the same flat tables whatever the rules.
+ */
+public final class Geometry {
+
+    public static final int MIN_BOX_SIZE = 2;
+    public static final int MAX_BOX_SIZE = 8;
+
+    //Cage combinations are enumerated over every value set, which stays small up to 16 values:
+    static final int MAX_CAGE_VALUES = 16;
+
+    private static final int[][] NO_CELLS = new int[0][];
+
+    private static final Geometry[] BY_BOX_SIZE = new Geometry[MAX_BOX_SIZE + 1];
+
+    public static final Geometry CLASSIC = of(3);
+
+    private final int boxSize;
+    private final int size;
+    private final int cells;
+    private final long allValues;
+    //The box (or region) of every cell:
+    private final int[] regionOf;
+    //Rows are units 0 to size-1, then the cols, the boxes (or regions) and any extra units:
+    private final int[][] units;
+    private final int[][] unitsOf;
+    private final int[][] peers;
+    //Cells that must add up to a sum, without a value twice; the cage of every cell, -1 outside any cage:
+    private final int[][] cages;
+    private final int[] cageSums;
+    private final int[] cageOf;
+    //Per cage, the value sets (as masks) with as many values as the cage has cells that add up to its sum:
+    private final long[][] cageCombinations;
+    private volatile int[][][] intersections;
+
+    private Geometry(int boxSize, int[] regionOf, int[][] extraUnits, int[][] cages, int[] cageSums) {
+        this.boxSize = boxSize;
+        this.size = boxSize * boxSize;
+        this.cells = size * size;
+        this.allValues = size == Long.SIZE ? -1L : (1L << size) - 1;
+        this.regionOf = regionOf;
+        this.units = new int[3 * size + extraUnits.length][];
+        for (int unit = 0; unit < 3 * size; unit++) {
+            units[unit] = new int[size];
+        }
+        final int[] regionCells = new int[size];
+        for (int index = 0; index < cells; index++) {
+            final int region = regionOf[index];
+            units[rowOf(index)][colOf(index)] = index;
+            units[size + colOf(index)][rowOf(index)] = index;
+            units[2 * size + region][regionCells[region]++] = index;
+        }
+        for (int extra = 0; extra < extraUnits.length; extra++) {
+            units[3 * size + extra] = extraUnits[extra];
+        }
+        this.unitsOf = new int[cells][];
+        for (int index = 0; index < cells; index++) {
+            final List<Integer> of = new ArrayList<>(3);
+            of.add(rowOf(index));
+            of.add(size + colOf(index));
+            of.add(2 * size + regionOf[index]);
+            for (int extra = 0; extra < extraUnits.length; extra++) {
+                if (contains(extraUnits[extra], index)) {
+                    of.add(3 * size + extra);
+                }
+            }
+            unitsOf[index] = of.stream().mapToInt(Integer::intValue).toArray();
+        }
+        this.cages = cages;
+        this.cageSums = cageSums;
+        this.cageOf = new int[cells];
+        Arrays.fill(cageOf, -1);
+        this.cageCombinations = new long[cages.length][];
+        for (int cage = 0; cage < cages.length; cage++) {
+            for (final int cell : cages[cage]) {
+                cageOf[cell] = cage;
+            }
+            cageCombinations[cage] = combinations(size, cages[cage].length, cageSums[cage]);
+        }
+        //Peers share a unit or a cage, no value may repeat between them:
+        this.peers = new int[cells][];
+        final int[] seen = new int[cells];
+        Arrays.fill(seen, -1);
+        final int[] found = new int[cells];
+        for (int index = 0; index < cells; index++) {
+            int count = 0;
+            seen[index] = index;
+            for (final int unit : unitsOf[index]) {
+                for (final int other : units[unit]) {
+                    if (seen[other] != index) {
+                        seen[other] = index;
+                        found[count++] = other;
+                    }
+                }
+            }
+            if (cageOf[index] >= 0) {
+                for (final int other : cages[cageOf[index]]) {
+                    if (seen[other] != index) {
+                        seen[other] = index;
+                        found[count++] = other;
+                    }
+                }
+            }
+            peers[index] = Arrays.copyOf(found, count);
+            Arrays.sort(peers[index]);
+        }
+    }
+
+    public static synchronized Geometry of(int boxSize) {
+        checkBoxSize(boxSize);
+        if (BY_BOX_SIZE[boxSize] == null) {
+            final int size = boxSize * boxSize;
+            final int[] boxes = new int[size * size];
+            for (int index = 0; index < boxes.length; index++) {
+                boxes[index] = (index / size / boxSize) * boxSize + index % size / boxSize;
+            }
+            BY_BOX_SIZE[boxSize] = new Geometry(boxSize, boxes, NO_CELLS, NO_CELLS, new int[0]);
+        }
+        return BY_BOX_SIZE[boxSize];
+    }
+
+    /**
+     * Compiles declared rules into a geometry, checking that they make a grid every row, col and region of
+     * which can hold each value once.
+     *
+     * @param regionOf   the region (0 to size-1) of every cell, each region having size cells
+     * @param extraUnits further units that must hold every value once, size cells each
+     * @param cages      cells that must add up to their sum without repeating a value, no cell in two cages
+     */
+    static Geometry compile(int boxSize, int[] regionOf, int[][] extraUnits, int[][] cages, int[] cageSums) {
+        checkBoxSize(boxSize);
+        final int size = boxSize * boxSize;
+        final int cells = size * size;
+        if (regionOf.length != cells) {
+            throw new IllegalArgumentException("Expected a region for each of the " + cells + " cells");
+        }
+        final int[] regionCells = new int[size];
+        for (final int region : regionOf) {
+            if (region < 0 || region >= size) {
+                throw new IllegalArgumentException("Regions are numbered from 0 to " + (size - 1) + " but got " + region);
+            }
+            regionCells[region]++;
+        }
+        for (int region = 0; region < size; region++) {
+            if (regionCells[region] != size) {
+                throw new IllegalArgumentException("Region " + region + " has " + regionCells[region]
+                        + " cells instead of " + size);
+            }
+        }
+        for (final int[] unit : extraUnits) {
+            if (unit.length != size || distinctCells(unit, cells) != size) {
+                throw new IllegalArgumentException("Every unit needs " + size + " different cells");
+            }
+        }
+        if (cages.length != cageSums.length) {
+            throw new IllegalArgumentException("Expected a sum for each of the " + cages.length + " cages");
+        }
+        if (cages.length > 0 && size > MAX_CAGE_VALUES) {
+            throw new IllegalArgumentException("Cages are only supported on grids of up to " + MAX_CAGE_VALUES + " values");
+        }
+        final boolean[] caged = new boolean[cells];
+        for (int cage = 0; cage < cages.length; cage++) {
+            if (cages[cage].length == 0 || cages[cage].length > size
+                    || distinctCells(cages[cage], cells) != cages[cage].length) {
+                throw new IllegalArgumentException("Cage " + cage + " needs 1 to " + size + " different cells");
+            }
+            for (final int cell : cages[cage]) {
+                if (caged[cell]) {
+                    throw new IllegalArgumentException("Cell " + cell + " is in more than one cage");
+                }
+                caged[cell] = true;
+            }
+            if (combinations(size, cages[cage].length, cageSums[cage]).length == 0) {
+                throw new IllegalArgumentException("No " + cages[cage].length + " different values add up to "
+                        + cageSums[cage] + " in cage " + cage);
+            }
+        }
+        final int[][] units = new int[extraUnits.length][];
+        for (int unit = 0; unit < units.length; unit++) {
+            units[unit] = extraUnits[unit].clone();
+        }
+        final int[][] cageCells = new int[cages.length][];
+        for (int cage = 0; cage < cages.length; cage++) {
+            cageCells[cage] = cages[cage].clone();
+        }
+        return new Geometry(boxSize, regionOf.clone(), units, cageCells, cageSums.clone());
+    }
+
+    private static void checkBoxSize(int boxSize) {
+        if (boxSize < MIN_BOX_SIZE || boxSize > MAX_BOX_SIZE) {
+            throw new IllegalArgumentException("Box size must be between " + MIN_BOX_SIZE + " and " + MAX_BOX_SIZE
+                    + " but got " + boxSize);
+        }
+    }
+
+    private static int distinctCells(int[] unit, int cells) {
+        return (int) Arrays.stream(unit).filter(cell -> cell >= 0 && cell < cells).distinct().count();
+    }
+
+    //Values are numbered from 0 but count from 1 towards the sum, as they are written:
+    private static long[] combinations(int size, int count, int sum) {
+        final List<Long> combinations = new ArrayList<>();
+        for (long mask = 0; mask < 1L << size; mask++) {
+            if (Long.bitCount(mask) == count && sumOf(mask) == sum) {
+                combinations.add(mask);
+            }
+        }
+        return combinations.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static int sumOf(long mask) {
+        int sum = 0;
+        for (long values = mask; values != 0; values &= values - 1) {
+            sum += Long.numberOfTrailingZeros(values) + 1;
+        }
+        return sum;
+    }
+
+    private static boolean contains(int[] cells, int cell) {
+        for (final int c : cells) {
+            if (c == cell) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The geometry with the given number of cells, as found from the length of a puzzle line.
+     */
+    public static Geometry ofCells(int cells) {
+        for (int boxSize = MIN_BOX_SIZE; boxSize <= MAX_BOX_SIZE; boxSize++) {
+            if (boxSize * boxSize * boxSize * boxSize == cells) {
+                return of(boxSize);
+            }
+        }
+        throw new IllegalArgumentException("No grid has " + cells + " cells");
+    }
+
+    public int getBoxSize() {
+        return boxSize;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getCells() {
+        return cells;
+    }
+
+    /**
+     * The candidate mask with every value set.
+     */
+    public long getAllValues() {
+        return allValues;
+    }
+
+    public int[][] getUnits() {
+        return units;
+    }
+
+    public int rowOf(int index) {
+        return index / size;
+    }
+
+    public int colOf(int index) {
+        return index % size;
+    }
+
+    /**
+     * The box of the cell, or its region on a jigsaw grid.
+     */
+    public int boxOf(int index) {
+        return regionOf[index];
+    }
+
+    //A copy of the box of every cell, for variants keeping the boxes:
+    int[] boxesOf() {
+        return regionOf.clone();
+    }
+
+    /**
+     * The indices of the cells sharing a row, col, box, extra unit or cage with the cell.
+     */
+    public int[] peersOf(int index) {
+        return peers[index];
+    }
+
+    /**
+     * The row, col and box unit of the cell and any extra units holding it, as indices into {@link #getUnits()}.
+     */
+    public int[] unitsOf(int index) {
+        return unitsOf[index];
+    }
+
+    public boolean hasCages() {
+        return cages.length > 0;
+    }
+
+    public int[][] getCages() {
+        return cages;
+    }
+
+    public int getCageSum(int cage) {
+        return cageSums[cage];
+    }
+
+    /**
+     * The cage of the cell, or -1 when it is in none.
+     */
+    public int cageOf(int index) {
+        return cageOf[index];
+    }
+
+    /**
+     * The value sets that can fill the cage, as candidate masks.
+     */
+    public long[] getCageCombinations(int cage) {
+        return cageCombinations[cage];
+    }
+
+    /**
+     * For every two units sharing more than one cell (a box and a row or col, a box and a diagonal...): the
+     * cells they share, the rest of the one and the rest of the other. Built on first use, only locked
+     * candidates needs them.
+     */
+    public int[][][] getUnitIntersections() {
+        int[][][] result = intersections;
+        if (result == null) {
+            //Pairs of units meet in a cell of both, so only the units of each cell need pairing up:
+            final Map<Long, Integer> shared = new TreeMap<>();
+            for (int index = 0; index < cells; index++) {
+                for (int i = 0; i < unitsOf[index].length; i++) {
+                    for (int j = i + 1; j < unitsOf[index].length; j++) {
+                        shared.merge((long) unitsOf[index][i] * units.length + unitsOf[index][j], 1, Integer::sum);
+                    }
+                }
+            }
+            final List<int[][]> found = new ArrayList<>();
+            shared.forEach((pair, count) -> {
+                if (count > 1) {
+                    final int[] first = units[(int) (pair / units.length)];
+                    final int[] second = units[(int) (pair % units.length)];
+                    final int[] intersection = intersect(first, second);
+                    found.add(new int[][] { intersection, subtract(first, intersection), subtract(second, intersection) });
+                }
+            });
+            result = found.toArray(new int[0][][]);
+            intersections = result;
+        }
+        return result;
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        return Arrays.stream(a).filter(cell -> contains(b, cell)).toArray();
+    }
+
+    private static int[] subtract(int[] a, int[] b) {
+        return Arrays.stream(a).filter(cell -> !contains(b, cell)).toArray();
+    }
+
+}
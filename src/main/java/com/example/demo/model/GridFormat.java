@@ -0,0 +1,56 @@
+package com.example.demo.model;
+
+/**
+ * The single line format for grids of any size: one character per cell, row by row, with '0' or '.' for an
+ * empty cell. Values are written as 1-9, then A-Z, a-z and #$%, so a 16x16 grid uses 1-9 and A-G; on the
+ * classic grid this is the same as {@link PuzzleFormat}. The grid size follows from the line length.
+ */
+public final class GridFormat {
+
+    private static final String SYMBOLS = "123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz#$%";
+
+    private GridFormat() {
+    }
+
+    public static CandidateGrid parse(CharSequence line) {
+        return parse(line, Geometry.ofCells(line.length()));
+    }
+
+    /**
+     * Parses the clues of a grid with the given geometry, such as that of a {@link Variant}.
+     */
+    public static CandidateGrid parse(CharSequence line, Geometry geometry) {
+        if (line.length() != geometry.getCells()) {
+            throw new IllegalArgumentException("Expected " + geometry.getCells() + " cells but got " + line.length());
+        }
+        final CandidateGrid grid = CandidateGrid.empty(geometry);
+        for (int cell = 0; cell < line.length(); cell++) {
+            final char c = line.charAt(cell);
+            if (!PuzzleFormat.isEmptyCell(c)) {
+                final int value = symbolValue(c);
+                if (value < 0 || value >= geometry.getSize()) {
+                    throw new IllegalArgumentException("Unexpected character '" + c + "' at position " + cell);
+                }
+                //Conflicting clues leave the grid contradictory, which the solver reports as unsolvable:
+                grid.assign(cell, value);
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * The value (from 0) the character stands for, or -1 for none.
+     */
+    static int symbolValue(char c) {
+        return SYMBOLS.indexOf(c);
+    }
+
+    public static String format(CandidateGrid grid) {
+        final StringBuilder line = new StringBuilder(grid.getGeometry().getCells());
+        for (int cell = 0; cell < grid.getGeometry().getCells(); cell++) {
+            line.append(grid.isSet(cell) ? SYMBOLS.charAt(grid.getValue(cell)) : '.');
+        }
+        return line.toString();
+    }
+
+}
@@ -2,28 +2,44 @@ package com.example.demo.model;
 
 import lombok.Data;
 
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.*;
 
 @Data
 public class Position {
 
+    public static final int SIZE = 9;
+    public static final int CELLS = SIZE * SIZE;
+    public static final int PEER_COUNT = 20;
+
     public static final Set<Position> ALL_POSITIONS = new HashSet<>();
-    public static final Position[][] POSITIONS = new Position[9][];
+    public static final Position[][] POSITIONS = new Position[SIZE][];
+    private static final Position[] BY_INDEX = new Position[CELLS];
     static {
-        for (int row = 0; row < 9; row++) {
-            POSITIONS[row] = new Position[9];
-            for (int col = 0; col < 9; col++) {
+        for (int row = 0; row < SIZE; row++) {
+            POSITIONS[row] = new Position[SIZE];
+            for (int col = 0; col < SIZE; col++) {
                 var position = new Position(row, col);
                 ALL_POSITIONS.add(position);
                 POSITIONS[row][col] = position;
+                BY_INDEX[position.index()] = position;
             }
         }
     }
 
-    private static final Map<Position, Set<Position>> NEIGHBOURS = new ConcurrentHashMap<>();
+    private static final Geometry GEOMETRY = Geometry.CLASSIC;
+
+    //Cell indices of every unit: rows are units 0-8, cols 9-17 and boxes 18-26. Shared, must not be modified.
+    public static final int[][] UNITS = GEOMETRY.getUnits();
+    private static final List<Set<Position>> NEIGHBOURS = new ArrayList<>(CELLS);
+    static {
+        for (int index = 0; index < CELLS; index++) {
+            final Set<Position> neighbours = new HashSet<>();
+            for (final int peer : peersOf(index)) {
+                neighbours.add(BY_INDEX[peer]);
+            }
+            NEIGHBOURS.add(Collections.unmodifiableSet(neighbours));
+        }
+    }
 
     private final int row;
     private final int col;
@@ -37,21 +53,41 @@ public class Position {
         return POSITIONS[row][col];
     }
 
+    public static Position ofIndex(int index) {
+        return BY_INDEX[index];
+    }
+
+    public int index() {
+        return row * SIZE + col;
+    }
+
+    public static int rowOf(int index) {
+        return GEOMETRY.rowOf(index);
+    }
+
+    public static int colOf(int index) {
+        return GEOMETRY.colOf(index);
+    }
+
+    public static int boxOf(int index) {
+        return GEOMETRY.boxOf(index);
+    }
+
+    /**
+     * The indices of the 20 cells sharing a row, col or box with the cell.
+     */
+    public static int[] peersOf(int index) {
+        return GEOMETRY.peersOf(index);
+    }
+
+    /**
+     * The row, col and box unit of the cell, as indices into {@link #UNITS}.
+     */
+    public static int[] unitsOf(int index) {
+        return GEOMETRY.unitsOf(index);
+    }
+
     public static Set<Position> getNeighbours(final Position position) {
-        return NEIGHBOURS.computeIfAbsent(position, p -> {
-            final Set<Position> neighbours = new HashSet<>();
-            final int blockRow = (p.getRow() / 3) * 3;
-            final int blockCol = (p.getCol() / 3) * 3;
-            for (int i = 0; i < 9; i++) {
-                //Rows:
-                neighbours.add(at(p.getRow(), i));
-                //Cols:
-                neighbours.add(at(i, p.getCol()));
-                //
-                neighbours.add(at(blockRow + (i / 3), blockCol + (i % 3)));
-            }
-            neighbours.remove(p);
-            return neighbours;
-        });
+        return NEIGHBOURS.get(position.index());
     }
 }
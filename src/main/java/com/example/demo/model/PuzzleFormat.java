@@ -0,0 +1,76 @@
+package com.example.demo.model;
+
+import com.example.demo.exception.ValueAlreadySetException;
+
+/**
+ * The common single line format: 81 characters, row by row, with '0' or '.' for an empty cell.
+ */
+public final class PuzzleFormat {
+
+    public static final int LENGTH = Position.CELLS;
+
+    private PuzzleFormat() {
+    }
+
+    public static boolean isEmptyCell(char c) {
+        return c == '0' || c == '.';
+    }
+
+    public static SudokuBoard parse(SudokuBoard empty, CharSequence line) {
+        if (line.length() != LENGTH) {
+            throw new IllegalArgumentException("Expected " + LENGTH + " characters but got " + line.length());
+        }
+        SudokuBoard board = empty;
+        for (int cell = 0; cell < LENGTH; cell++) {
+            final char c = line.charAt(cell);
+            if (!isEmptyCell(c)) {
+                if (c < '1' || c > '9') {
+                    throw new IllegalArgumentException("Unexpected character '" + c + "' at position " + cell);
+                }
+                try {
+                    board = board.withValue(Position.ofIndex(cell), Value.of(c - '1'));
+                } catch (ValueAlreadySetException e) {
+                    //Every cell is only visited once
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+        return board;
+    }
+
+    /**
+     * Parses a line into cell values (value ordinal + 1, 0 for an empty cell) without building a board.
+     */
+    public static void parseCells(CharSequence line, int[] cells) {
+        if (line.length() != LENGTH) {
+            throw new IllegalArgumentException("Expected " + LENGTH + " characters but got " + line.length());
+        }
+        for (int cell = 0; cell < LENGTH; cell++) {
+            final char c = line.charAt(cell);
+            if (isEmptyCell(c)) {
+                cells[cell] = 0;
+            } else if (c >= '1' && c <= '9') {
+                cells[cell] = c - '0';
+            } else {
+                throw new IllegalArgumentException("Unexpected character '" + c + "' at position " + cell);
+            }
+        }
+    }
+
+    public static String formatCells(int[] cells) {
+        final char[] line = new char[LENGTH];
+        for (int cell = 0; cell < LENGTH; cell++) {
+            line[cell] = cells[cell] == 0 ? '.' : (char) ('0' + cells[cell]);
+        }
+        return new String(line);
+    }
+
+    public static String format(SudokuBoard board) {
+        final StringBuilder line = new StringBuilder(LENGTH);
+        for (int cell = 0; cell < LENGTH; cell++) {
+            line.append(board.getValue(Position.ofIndex(cell)).map(Value::toString).orElse("."));
+        }
+        return line.toString();
+    }
+
+}
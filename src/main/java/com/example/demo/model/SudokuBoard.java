@@ -3,12 +3,11 @@ package com.example.demo.model;
 import com.example.demo.exception.ValueAlreadySetException;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
 
 public abstract class SudokuBoard {
 
-    protected abstract Map<Position, Value> getValues();
+    //Indexed by Position.index(), null where no value is set:
+    protected abstract Value[] getValues();
 
     public abstract Optional<Value> getValue(Position position);
 
@@ -24,6 +23,27 @@ public abstract class SudokuBoard {
         return EmptySudokuBoard.INSTANCE;
     }
 
+    public static SudokuBoard emptyBitboard() {
+        return BitboardSudokuBoard.EMPTY;
+    }
+
+    //Bit n set when Value.of(n) can still be placed in the cell:
+    int getCandidateMask(final int cell) {
+        int mask = 0;
+        for (final Value value : getPossibleValues(Position.ofIndex(cell))) {
+            mask |= value.mask();
+        }
+        return mask;
+    }
+
+    /**
+     * A board with the values and candidate masks as they are, such as a saved board. Candidates the values
+     * rule out are dropped, so the board is consistent however the masks were narrowed.
+     */
+    static SudokuBoard restore(final Value[] values, final short[] candidates) {
+        return new ChildSudokuBoard(values, candidates);
+    }
+
     public SudokuBoard withValue(final Position position, final Value value) throws ValueAlreadySetException {
         final Optional<Value> currentValue = getValue(position);
         if (currentValue.isPresent()) {
@@ -40,9 +60,11 @@ public abstract class SudokuBoard {
 
         private static final SudokuBoard INSTANCE = new EmptySudokuBoard();
 
+        private static final Value[] VALUES = new Value[Position.CELLS];
+
         @Override
-        public Map<Position, Value> getValues() {
-            return Collections.emptyMap();
+        public Value[] getValues() {
+            return VALUES;
         }
 
         @Override
@@ -68,30 +90,98 @@ public abstract class SudokuBoard {
 
     }
 
+    /**
+     * Keeps the candidates of every cell as a bit mask (bit n set when {@code Value.of(n)} is still possible).
+     * Placing a value copies the parent's masks and only clears the value from the 20 peers, so
+     * contradictions are found while placing and validity is known without walking the board.
+     */
     private static class ChildSudokuBoard extends SudokuBoard {
 
-        private final SudokuBoard parent;
+        private static final short ALL_VALUES = (short) ((1 << Position.SIZE) - 1);
+        private static final short[] EMPTY_CANDIDATES = new short[Position.CELLS];
+        static {
+            Arrays.fill(EMPTY_CANDIDATES, ALL_VALUES);
+        }
 
-        private final Map<Position, Value> values;
-        private transient Boolean valid = null;
+        private final Value[] values;
+        //A set cell only has its own value as candidate:
+        private final short[] candidates;
+        private final int solvedCount;
+        private final boolean valid;
         private transient Set<Position> unsolvedPositions = null;
-        private final Map<Position, EnumSet<Value>> neighbourValues = new ConcurrentHashMap<>();
-        private final Map<Position, EnumSet<Value>> possibleValues = new ConcurrentHashMap<>();
 
         private ChildSudokuBoard(SudokuBoard parent, Position position, Value value) {
-            this.parent = parent;
-            this.values = new HashMap<>(parent.getValues());
-            this.values.put(position, value);
+            final int cell = position.index();
+            final short bit = (short) value.mask();
+            final short[] parentCandidates;
+            if (parent instanceof ChildSudokuBoard) {
+                final ChildSudokuBoard child = (ChildSudokuBoard) parent;
+                parentCandidates = child.candidates;
+                this.solvedCount = child.solvedCount + 1;
+            } else {
+                parentCandidates = EMPTY_CANDIDATES;
+                this.solvedCount = 1;
+            }
+            this.values = parent.getValues().clone();
+            this.values[cell] = value;
+            this.candidates = parentCandidates.clone();
+            this.candidates[cell] = bit;
+
+            //A value that is no longer a candidate is already used by one of the peers:
+            boolean consistent = parent.isValid() && (parentCandidates[cell] & bit) != 0;
+            for (final int peer : Position.peersOf(cell)) {
+                if (values[peer] == null) {
+                    candidates[peer] &= ~bit;
+                    if (candidates[peer] == 0) {
+                        //no possible value left for this peer:
+                        consistent = false;
+                    }
+                }
+            }
+            this.valid = consistent;
+        }
+
+        private ChildSudokuBoard(Value[] values, short[] candidates) {
+            this.values = values;
+            this.candidates = candidates;
+            int solved = 0;
+            boolean consistent = true;
+            for (int cell = 0; cell < Position.CELLS; cell++) {
+                if (values[cell] != null) {
+                    final short bit = (short) values[cell].mask();
+                    candidates[cell] = bit;
+                    solved++;
+                    for (final int peer : Position.peersOf(cell)) {
+                        if (values[peer] == null) {
+                            candidates[peer] &= ~bit;
+                        } else if (values[peer] == values[cell]) {
+                            consistent = false;
+                        }
+                    }
+                }
+            }
+            for (int cell = 0; cell < Position.CELLS; cell++) {
+                if (values[cell] == null && candidates[cell] == 0) {
+                    consistent = false;
+                }
+            }
+            this.solvedCount = solved;
+            this.valid = consistent;
         }
 
         @Override
-        public Map<Position, Value> getValues() {
+        public Value[] getValues() {
             return values;
         }
 
+        @Override
+        int getCandidateMask(final int cell) {
+            return candidates[cell];
+        }
+
         @Override
         public Optional<Value> getValue(Position position) {
-            return Optional.ofNullable(values.get(position));
+            return Optional.ofNullable(values[position.index()]);
         }
 
         @Override
@@ -103,69 +193,34 @@ public abstract class SudokuBoard {
         }
 
         private Set<Position> computeUnsolvedPositions() {
-            return parent.getUnsolvedPositions().stream()
-                    .filter(p -> ! values.containsKey(p))
-                    .collect(Collectors.toSet());
+            final Set<Position> unsolved = new HashSet<>();
+            for (int cell = 0; cell < Position.CELLS; cell++) {
+                if (values[cell] == null) {
+                    unsolved.add(Position.ofIndex(cell));
+                }
+            }
+            return unsolved;
         }
 
         @Override
         public boolean isValid() {
-            if (valid == null) {
-                valid = computeValid();
-            }
             return valid;
         }
 
-        private boolean computeValid() {
-            for (final Position position : Position.ALL_POSITIONS) {
-                Optional<Value> value = getValue(position);
-                if (value.isPresent()) {
-                    //This is set, so it shouldn't conflict with other cells:
-                    if (getNeighbourValues(position).contains(value.get())) {
-                        //One of the neighbours has the same value, so reject:
-                        return false;
-                    }
-                } else {
-                    if (getPossibleValues(position).isEmpty()) {
-                        //no possible value for this cell:
-                        return false;
-                    }
-                }
-            }
-            return true;
-        }
-
         @Override
         public boolean isSolved() {
-            return this.getValues().size() == Position.ALL_POSITIONS.size();
-        }
-
-        public EnumSet<Value> getNeighbourValues(final Position position) {
-            return this.neighbourValues.computeIfAbsent(position, this::computeNeighbourValues);
-        }
-
-        private EnumSet<Value> computeNeighbourValues(final Position position) {
-            return Position.getNeighbours(position).stream()
-                    .map(this::getValue)
-                    .filter(Optional::isPresent)
-                    .map(Optional::get)
-                    .collect(Collectors.toCollection(() -> EnumSet.noneOf(Value.class)));
+            return solvedCount == Position.CELLS;
         }
 
         @Override
         public EnumSet<Value> getPossibleValues(final Position position) {
-            return this.possibleValues.computeIfAbsent(position, this::computePossibleValues);
-        }
-
-        private EnumSet<Value> computePossibleValues(final Position position) {
-            final Optional<Value> value = getValue(position);
-            if (value.isPresent()) {
-                return EnumSet.of(value.get());
-            } else {
-                final EnumSet<Value> potentialValues = EnumSet.copyOf(parent.getPossibleValues(position));
-                potentialValues.removeAll(getNeighbourValues(position));
-                return potentialValues;
+            final EnumSet<Value> possibleValues = EnumSet.noneOf(Value.class);
+            int mask = candidates[position.index()];
+            while (mask != 0) {
+                possibleValues.add(Value.of(Integer.numberOfTrailingZeros(mask)));
+                mask &= mask - 1;
             }
+            return possibleValues;
         }
 
     }
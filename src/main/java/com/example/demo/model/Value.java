@@ -12,6 +12,16 @@ public enum Value {
     VALUE_8,
     VALUE_9;
 
+    private static final Value[] VALUES = values();
+
+    public static Value of(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    public int mask() {
+        return 1 << ordinal();
+    }
+
     @Override
     public String toString() {
         return String.valueOf(this.ordinal() + 1);
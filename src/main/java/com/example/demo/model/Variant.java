@@ -0,0 +1,159 @@
+package com.example.demo.model;
+
+import java.util.Arrays;
+
+/**
+ * The rules of a sudoku variant as data: the regions taking the place of the boxes, extra units that must hold
+ * every value once and killer cages with their sums. They are compiled into a {@link Geometry} when the
+ * variant is created, so solving a variant runs on the same flat peer and unit tables as the classic grid.
+ * <p>
+ * Variants are written on one line as {@code <kind>[:<definition>]}, with the symbols of {@link GridFormat}:
+ * <pre>
+ * classic
+ * diagonal                                   both main diagonals hold every value too (X-sudoku)
+ * jigsaw:&lt;region of every cell&gt;              regions 1, 2, ... instead of the boxes
+ * killer:&lt;cage of every cell&gt;:&lt;sums&gt;         cages 1, 2, ... ('.' outside any cage), sums comma separated
+ * </pre>
+ */
+public final class Variant {
+
+    public static final String CLASSIC = "classic";
+    public static final String DIAGONAL = "diagonal";
+    public static final String JIGSAW = "jigsaw";
+    public static final String KILLER = "killer";
+
+    private final String name;
+    private final Geometry geometry;
+
+    private Variant(String name, Geometry geometry) {
+        this.name = name;
+        this.geometry = geometry;
+    }
+
+    public static Variant classic(int boxSize) {
+        return new Variant(CLASSIC, Geometry.of(boxSize));
+    }
+
+    public static Variant diagonal(int boxSize) {
+        final int size = boxSize * boxSize;
+        final int[][] diagonals = new int[2][size];
+        for (int i = 0; i < size; i++) {
+            diagonals[0][i] = i * size + i;
+            diagonals[1][i] = i * size + size - 1 - i;
+        }
+        return new Variant(DIAGONAL, Geometry.compile(boxSize, Geometry.of(boxSize).boxesOf(), diagonals,
+                new int[0][], new int[0]));
+    }
+
+    /**
+     * @param regionOf the region (from 0) of every cell
+     */
+    public static Variant jigsaw(int boxSize, int[] regionOf) {
+        return new Variant(JIGSAW, Geometry.compile(boxSize, regionOf, new int[0][], new int[0][], new int[0]));
+    }
+
+    /**
+     * @param cages the cells of every cage
+     * @param sums  the sum of every cage
+     */
+    public static Variant killer(int boxSize, int[][] cages, int[] sums) {
+        return new Variant(KILLER, Geometry.compile(boxSize, Geometry.of(boxSize).boxesOf(), new int[0][],
+                cages, sums));
+    }
+
+    /**
+     * Parses a variant written on one line for grids with the given box size.
+     */
+    public static Variant parse(String line, int boxSize) {
+        final String[] parts = line.split(":", -1);
+        final int size = boxSize * boxSize;
+        switch (parts[0]) {
+            case CLASSIC:
+                expectParts(parts, 1, CLASSIC);
+                return classic(boxSize);
+            case DIAGONAL:
+                expectParts(parts, 1, DIAGONAL);
+                return diagonal(boxSize);
+            case JIGSAW:
+                expectParts(parts, 2, "jigsaw:<region of every cell>");
+                return jigsaw(boxSize, symbols(parts[1], size * size, false));
+            case KILLER:
+                expectParts(parts, 3, "killer:<cage of every cell>:<sums>");
+                final int[] cageOf = symbols(parts[1], size * size, true);
+                final int[] sums = Arrays.stream(parts[2].split(","))
+                        .map(String::trim)
+                        .mapToInt(Variant::parseSum)
+                        .toArray();
+                final int[] cageCells = new int[sums.length];
+                for (final int cage : cageOf) {
+                    if (cage >= sums.length) {
+                        throw new IllegalArgumentException("No sum for cage " + (cage + 1) + ", only " + sums.length
+                                + " sums are given");
+                    }
+                    if (cage >= 0) {
+                        cageCells[cage]++;
+                    }
+                }
+                final int[][] cages = new int[sums.length][];
+                for (int cage = 0; cage < cages.length; cage++) {
+                    cages[cage] = new int[cageCells[cage]];
+                    cageCells[cage] = 0;
+                }
+                for (int cell = 0; cell < cageOf.length; cell++) {
+                    if (cageOf[cell] >= 0) {
+                        cages[cageOf[cell]][cageCells[cageOf[cell]]++] = cell;
+                    }
+                }
+                return killer(boxSize, cages, sums);
+            default:
+                throw new IllegalArgumentException("Unknown variant '" + parts[0] + "', expected one of "
+                        + Arrays.asList(CLASSIC, DIAGONAL, JIGSAW, KILLER));
+        }
+    }
+
+    private static void expectParts(String[] parts, int count, String form) {
+        if (parts.length != count) {
+            throw new IllegalArgumentException("Expected the variant as " + form);
+        }
+    }
+
+    private static int[] symbols(String line, int cells, boolean allowEmpty) {
+        if (line.length() != cells) {
+            throw new IllegalArgumentException("Expected " + cells + " cells but got " + line.length());
+        }
+        final int[] numbers = new int[cells];
+        for (int cell = 0; cell < cells; cell++) {
+            final char c = line.charAt(cell);
+            if (allowEmpty && PuzzleFormat.isEmptyCell(c)) {
+                numbers[cell] = -1;
+            } else if ((numbers[cell] = GridFormat.symbolValue(c)) < 0) {
+                throw new IllegalArgumentException("Unexpected character '" + c + "' at position " + cell);
+            }
+        }
+        return numbers;
+    }
+
+    private static int parseSum(String sum) {
+        try {
+            return Integer.parseInt(sum);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Cage sums must be numbers but got '" + sum + "'");
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Geometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * Parses the clues of a puzzle of this variant, in the single line format of {@link GridFormat}.
+     */
+    public CandidateGrid parsePuzzle(CharSequence line) {
+        return GridFormat.parse(line, geometry);
+    }
+
+}
@@ -1,17 +1,66 @@
 package com.example.demo.service;
 
 import com.example.demo.model.SudokuBoard;
-import lombok.Getter;
 import org.springframework.stereotype.Component;
 
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The boards of the named sessions, one of which is the current session the shell commands work on.
+ * Boards are immutable, so switching sessions only swaps a reference.
+ */
 @Component
 public class BoardHolder {
 
-    @Getter
-    private SudokuBoard board = SudokuBoard.empty();
+    public static final String DEFAULT_SESSION = "default";
+
+    private final Map<String, SudokuBoard> sessions = new ConcurrentHashMap<>();
+    private volatile String session = DEFAULT_SESSION;
+
+    public BoardHolder() {
+        sessions.put(DEFAULT_SESSION, SudokuBoard.empty());
+    }
+
+    public SudokuBoard getBoard() {
+        return sessions.getOrDefault(session, SudokuBoard.empty());
+    }
 
     public void setBoard(SudokuBoard board) {
-        this.board = board;
+        sessions.put(session, board);
+    }
+
+    public String getSession() {
+        return session;
+    }
+
+    /**
+     * Makes the session current, starting it with an empty board when it is new.
+     */
+    public void switchTo(String name) {
+        sessions.putIfAbsent(name, SudokuBoard.empty());
+        session = name;
+    }
+
+    public Set<String> getSessions() {
+        return new TreeSet<>(sessions.keySet());
+    }
+
+    /**
+     * Drops a session; removing the current one switches back to the default session.
+     */
+    public void remove(String name) {
+        if (DEFAULT_SESSION.equals(name)) {
+            throw new IllegalArgumentException("The default session cannot be removed");
+        }
+        if (sessions.remove(name) == null) {
+            throw new IllegalArgumentException("No session named '" + name + "'");
+        }
+        if (name.equals(session)) {
+            session = DEFAULT_SESSION;
+        }
     }
 
 }
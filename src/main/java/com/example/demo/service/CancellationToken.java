@@ -0,0 +1,83 @@
+package com.example.demo.service;
+
+import java.time.Duration;
+
+/**
+ * Stops a search from the outside, when {@link #cancel()} is called or once its time budget has run out.
+ * Searches check the token every few nodes and end with the solutions found so far, a status telling
+ * why they stopped and, for parallel searches, every branch torn down at its next node.
+ */
+public final class CancellationToken {
+
+    //Nodes between checks: a volatile read is cheap, reading the clock on every node is not:
+    static final int CHECK_INTERVAL = 64;
+
+    /**
+     * Never stops a search, it cannot be cancelled.
+     */
+    public static final CancellationToken NONE = new CancellationToken(false, 0, null);
+
+    private final boolean timed;
+    private final long deadline;
+    private final CancellationToken parent;
+    private volatile boolean cancelled;
+
+    private CancellationToken(boolean timed, long deadline, CancellationToken parent) {
+        this.timed = timed;
+        this.deadline = deadline;
+        this.parent = parent;
+    }
+
+    /**
+     * A token only stopped by {@link #cancel()}.
+     */
+    public static CancellationToken create() {
+        return new CancellationToken(false, 0, null);
+    }
+
+    /**
+     * A token that also stops the search once the budget, counted from now, has run out.
+     */
+    public static CancellationToken withBudget(Duration budget) {
+        return new CancellationToken(true, System.nanoTime() + budget.toNanos(), null);
+    }
+
+    /**
+     * A token stopped whenever this one is, which can also be cancelled on its own without stopping this one.
+     */
+    public CancellationToken child() {
+        return new CancellationToken(false, 0, this);
+    }
+
+    public void cancel() {
+        if (this == NONE) {
+            throw new UnsupportedOperationException("The NONE token cannot be cancelled");
+        }
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Why a search holding this token must stop, or null while it may go on.
+     */
+    public SearchStatus check() {
+        if (cancelled) {
+            return SearchStatus.CANCELLED;
+        }
+        if (timed && System.nanoTime() - deadline >= 0) {
+            return SearchStatus.TIMED_OUT;
+        }
+        return parent == null ? null : parent.check();
+    }
+
+    /**
+     * Like {@link #check()}, but only on every {@link #CHECK_INTERVAL}th node.
+     */
+    static SearchStatus check(final CancellationToken token, final long nodes) {
+        return nodes % CHECK_INTERVAL == 0 ? token.check() : null;
+    }
+
+}
@@ -0,0 +1,257 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Position;
+import com.example.demo.model.SudokuBoard;
+import com.example.demo.model.Value;
+import lombok.AllArgsConstructor;
+import lombok.SneakyThrows;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Knuth's Algorithm X with dancing links over the exact cover matrix of sudoku: one row for each of
+ * the 729 (cell, value) placements and one column for each of the 324 constraints
+ * (every cell filled, every value once per row, col and box).
+ */
+@Component
+@AllArgsConstructor
+public class DancingLinksSolver implements SolverEngine {
+
+    public static final String NAME = "dlx";
+
+    private static final int SIZE = Position.SIZE;
+    private static final int CELLS = Position.CELLS;
+    private static final int ROWS = CELLS * SIZE;
+    private static final int COLUMNS = 4 * CELLS;
+    private static final int NODES_PER_ROW = 4;
+    private static final int ROOT = 0;
+    private static final int FIRST_ROW_NODE = COLUMNS + 1;
+    private static final int NODES = FIRST_ROW_NODE + ROWS * NODES_PER_ROW;
+
+    //The fully linked matrix, copied into every search instead of being rebuilt:
+    private static final int[] LEFT = new int[NODES];
+    private static final int[] RIGHT = new int[NODES];
+    private static final int[] UP = new int[NODES];
+    private static final int[] DOWN = new int[NODES];
+    private static final int[] COLUMN = new int[NODES];
+    private static final int[] SIZES = new int[COLUMNS + 1];
+    static {
+        for (int header = 0; header <= COLUMNS; header++) {
+            LEFT[header] = header == 0 ? COLUMNS : header - 1;
+            RIGHT[header] = header == COLUMNS ? 0 : header + 1;
+            UP[header] = header;
+            DOWN[header] = header;
+            COLUMN[header] = header;
+        }
+        for (int row = 0; row < ROWS; row++) {
+            final int cell = row / SIZE;
+            final int value = row % SIZE;
+            final int[] columns = {
+                    cell,
+                    CELLS + Position.rowOf(cell) * SIZE + value,
+                    2 * CELLS + Position.colOf(cell) * SIZE + value,
+                    3 * CELLS + Position.boxOf(cell) * SIZE + value
+            };
+            final int first = rowNode(row);
+            for (int i = 0; i < NODES_PER_ROW; i++) {
+                final int node = first + i;
+                final int header = columns[i] + 1;
+                LEFT[node] = first + (i + NODES_PER_ROW - 1) % NODES_PER_ROW;
+                RIGHT[node] = first + (i + 1) % NODES_PER_ROW;
+                //Append at the bottom of the column:
+                UP[node] = UP[header];
+                DOWN[node] = header;
+                DOWN[UP[header]] = node;
+                UP[header] = node;
+                COLUMN[node] = header;
+                SIZES[header]++;
+            }
+        }
+    }
+
+    private final SolveStatsListener statsListener;
+
+    private static int rowNode(int row) {
+        return FIRST_ROW_NODE + row * NODES_PER_ROW;
+    }
+
+    private static int rowOf(int node) {
+        return (node - FIRST_ROW_NODE) / NODES_PER_ROW;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public SolveResult solve(final SudokuBoard board, final CancellationToken token) {
+        final Set<SudokuBoard> solutions = new HashSet<>();
+        final Search search = new Search(board, Long.MAX_VALUE, token);
+        search.run(s -> solutions.add(s.toBoard()));
+        return new SolveResult(solutions, search.stats, search.status);
+    }
+
+    @Override
+    public SearchOutcome search(final SudokuBoard board, final SolutionListener listener,
+                                final CancellationToken token) {
+        final Search search = new Search(board, Long.MAX_VALUE, token);
+        return new SearchOutcome(search.run(s -> listener.onSolution(s.toBoard())), search.status, search.stats);
+    }
+
+    @Override
+    public SearchOutcome countSolutions(final SudokuBoard board, final long limit, final CancellationToken token) {
+        final Search search = new Search(board, limit, token);
+        return new SearchOutcome(search.run(s -> true), search.status, search.stats);
+    }
+
+    private class Search {
+
+        private final SudokuBoard board;
+        private final long limit;
+        private final CancellationToken token;
+        private final int[] left = LEFT.clone();
+        private final int[] right = RIGHT.clone();
+        private final int[] up = UP.clone();
+        private final int[] down = DOWN.clone();
+        private final int[] sizes = SIZES.clone();
+        //The rows chosen by the search, one per empty cell:
+        private final int[] chosen = new int[CELLS];
+        private int depth;
+        private Predicate<Search> onSolution;
+        private long found;
+        private long nodesExpanded;
+        private int maxDepth;
+        private long backtracks;
+        private SolveStats stats;
+        private SearchStatus status = SearchStatus.EXHAUSTED;
+
+        private Search(SudokuBoard board, long limit, CancellationToken token) {
+            this.board = board;
+            this.limit = limit;
+            this.token = token;
+        }
+
+        private long run(Predicate<Search> onSolution) {
+            final long start = System.nanoTime();
+            this.onSolution = onSolution;
+            if (coverClues()) {
+                search();
+            }
+            //Dancing links has no propagation phase and never forks:
+            stats = new SolveStats(nodesExpanded, maxDepth, backtracks, 0, 0, 0, System.nanoTime() - start);
+            statsListener.onStats(NAME, stats);
+            return found;
+        }
+
+        private boolean coverClues() {
+            final boolean[] covered = new boolean[COLUMNS + 1];
+            for (int cell = 0; cell < CELLS; cell++) {
+                final Optional<Value> value = board.getValue(Position.ofIndex(cell));
+                if (value.isPresent()) {
+                    final int first = rowNode(cell * SIZE + value.get().ordinal());
+                    for (int i = 0; i < NODES_PER_ROW; i++) {
+                        final int header = COLUMN[first + i];
+                        if (covered[header]) {
+                            //Two clues claim the same constraint:
+                            return false;
+                        }
+                        covered[header] = true;
+                        cover(header);
+                    }
+                }
+            }
+            return true;
+        }
+
+        //Returns false once the search should stop, leaving the matrix as it is:
+        private boolean search() {
+            final SearchStatus cancelled = CancellationToken.check(token, nodesExpanded);
+            if (cancelled != null) {
+                status = cancelled;
+                return false;
+            }
+            nodesExpanded++;
+            maxDepth = Math.max(maxDepth, depth);
+            if (right[ROOT] == ROOT) {
+                found++;
+                if (! onSolution.test(this) || found >= limit) {
+                    status = SearchStatus.LIMIT_REACHED;
+                    return false;
+                }
+                return true;
+            }
+            final int header = smallestColumn();
+            if (sizes[header] == 0) {
+                backtracks++;
+                return true;
+            }
+            cover(header);
+            for (int node = down[header]; node != header; node = down[node]) {
+                chosen[depth++] = node;
+                for (int other = right[node]; other != node; other = right[other]) {
+                    cover(COLUMN[other]);
+                }
+                if (! search()) {
+                    return false;
+                }
+                depth--;
+                for (int other = left[node]; other != node; other = left[other]) {
+                    uncover(COLUMN[other]);
+                }
+            }
+            uncover(header);
+            return true;
+        }
+
+        private int smallestColumn() {
+            int best = right[ROOT];
+            for (int header = right[best]; header != ROOT && sizes[best] > 1; header = right[header]) {
+                if (sizes[header] < sizes[best]) {
+                    best = header;
+                }
+            }
+            return best;
+        }
+
+        private void cover(int header) {
+            right[left[header]] = right[header];
+            left[right[header]] = left[header];
+            for (int node = down[header]; node != header; node = down[node]) {
+                for (int other = right[node]; other != node; other = right[other]) {
+                    up[down[other]] = up[other];
+                    down[up[other]] = down[other];
+                    sizes[COLUMN[other]]--;
+                }
+            }
+        }
+
+        private void uncover(int header) {
+            for (int node = up[header]; node != header; node = up[node]) {
+                for (int other = left[node]; other != node; other = left[other]) {
+                    sizes[COLUMN[other]]++;
+                    up[down[other]] = other;
+                    down[up[other]] = other;
+                }
+            }
+            right[left[header]] = header;
+            left[right[header]] = header;
+        }
+
+        @SneakyThrows
+        private SudokuBoard toBoard() {
+            SudokuBoard solution = board;
+            for (int i = 0; i < depth; i++) {
+                final int row = rowOf(chosen[i]);
+                solution = solution.withValue(Position.ofIndex(row / SIZE), Value.of(row % SIZE));
+            }
+            return solution;
+        }
+
+    }
+
+}
@@ -0,0 +1,210 @@
+package com.example.demo.service;
+
+import com.example.demo.config.SolverProperties;
+import com.example.demo.model.SudokuBoard;
+import com.example.demo.service.branching.BranchingStrategies;
+import com.example.demo.service.propagation.Propagator;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Races several solver configurations on the same puzzle, each searching on its own core, and answers with
+ * whichever finishes first; the others are cancelled through their tokens and stop within a few nodes. Every
+ * member runs a complete search, so the result is the one any single engine would give, only the time it
+ * takes depends on the fastest configuration for the puzzle. Searches reporting every solution to a listener
+ * are not raced, the backtracking solver runs them alone; published solutions come from a race, all at once.
+ */
+@Component
+public class PortfolioSolver implements SolverEngine {
+
+    public static final String NAME = "portfolio";
+
+    //Only singles are propagated after this suffix, a cheaper node in a bigger tree:
+    private static final String SINGLES = "/singles";
+    private static final List<String> SINGLES_RULES = Arrays.asList("naked-singles", "hidden-singles");
+
+    private final List<Member> members;
+    private final Solver solver;
+    private final ExecutorService portfolioExecutor;
+    private final SolveStatsListener statsListener;
+
+    public PortfolioSolver(Solver solver, Propagator propagator, ForkJoinPool solverPool,
+                           SolverProperties solverProperties,
+                           @Qualifier("portfolioExecutor") ExecutorService portfolioExecutor,
+                           SolveStatsListener statsListener, BranchingStrategies branchingStrategies) {
+        this.solver = solver;
+        this.portfolioExecutor = portfolioExecutor;
+        this.statsListener = statsListener;
+        this.members = new ArrayList<>();
+        for (final String member : solverProperties.getPortfolio()) {
+            members.add(member(member, propagator, solverPool, solverProperties, branchingStrategies));
+        }
+        if (members.isEmpty()) {
+            throw new IllegalArgumentException("The portfolio needs at least one member");
+        }
+        //A race submits its members faster than idle workers take them, so the queue must hold all of them at once;
+        //else every race would be rejected, not only the ones finding the executor busy:
+        if (solverProperties.getPortfolioQueueCapacity() < members.size()) {
+            throw new IllegalArgumentException("solver.portfolio-queue-capacity must hold the " + members.size()
+                    + " members of one race");
+        }
+    }
+
+    //Members publish no statistics of their own, only the winner's are published, as the portfolio's:
+    private static Member member(final String member, final Propagator propagator, final ForkJoinPool solverPool,
+                                 final SolverProperties solverProperties,
+                                 final BranchingStrategies branchingStrategies) {
+        if (DancingLinksSolver.NAME.equals(member)) {
+            final DancingLinksSolver dancingLinksSolver = new DancingLinksSolver(SolveStatsListener.NONE);
+            return new Member(member, dancingLinksSolver::solve, dancingLinksSolver::countSolutions);
+        }
+        final boolean singles = member.endsWith(SINGLES);
+        final SolverProperties properties = new SolverProperties();
+        properties.setBranching(singles ? member.substring(0, member.length() - SINGLES.length()) : member);
+        properties.setUndoTrail(solverProperties.isUndoTrail());
+        properties.setMetrics(solverProperties.isMetrics());
+        //Fails here on an unknown strategy rather than on the first solve. Sequential, so a member searches on the
+        //portfolio thread running it, not parked there while a solver pool worker does the work:
+        final Solver memberSolver = new Solver(propagator, solverPool, properties, SolveStatsListener.NONE,
+                branchingStrategies).sequential();
+        final Propagator memberPropagator = singles ? propagator.only(SINGLES_RULES) : propagator;
+        return new Member(member,
+                (board, token) -> memberSolver.solve(board, memberPropagator, token),
+                (board, limit, token) -> memberSolver.countSolutions(board, memberPropagator, limit, token));
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    public List<String> getMembers() {
+        final List<String> names = new ArrayList<>(members.size());
+        for (final Member member : members) {
+            names.add(member.name);
+        }
+        return names;
+    }
+
+    @Override
+    public SolveResult solve(final SudokuBoard board, final CancellationToken token) {
+        final SolveResult result = race(token, (member, memberToken) -> member.solve.solve(board, memberToken));
+        statsListener.onStats(NAME, result.getStats());
+        return result;
+    }
+
+    @Override
+    public SearchOutcome search(final SudokuBoard board, final SolutionListener listener,
+                                final CancellationToken token) {
+        return solver.search(board, listener, token);
+    }
+
+    /**
+     * The raced solve, with every solution published once the winner is in: racing a stream would leave it
+     * to whichever member found the first solution.
+     */
+    @Override
+    public SolutionPublisher solutions(final SudokuBoard board, final CancellationToken token, final Executor executor) {
+        return new SolutionPublisher((listener, searchToken) -> {
+            final SolveResult result = solve(board, searchToken);
+            long found = 0;
+            for (final SudokuBoard solution : result.getSolutions()) {
+                found++;
+                if (!listener.onSolution(solution)) {
+                    return new SearchOutcome(found, SearchStatus.LIMIT_REACHED, result.getStats());
+                }
+            }
+            return new SearchOutcome(found, result.getStatus(), result.getStats());
+        }, token, executor);
+    }
+
+    @Override
+    public SearchOutcome countSolutions(final SudokuBoard board, final long limit, final CancellationToken token) {
+        return race(token, (member, memberToken) -> member.count.countSolutions(board, limit, memberToken));
+    }
+
+    private <T> T race(final CancellationToken token, final Race<T> race) {
+        final CompletionService<T> results = new ExecutorCompletionService<>(portfolioExecutor);
+        final List<CancellationToken> tokens = new ArrayList<>(members.size());
+        final List<Future<T>> futures = new ArrayList<>(members.size());
+        try {
+            for (final Member member : members) {
+                final CancellationToken memberToken = token.child();
+                tokens.add(memberToken);
+                futures.add(results.submit(() -> race.run(member, memberToken)));
+            }
+            ExecutionException failure = null;
+            for (int i = 0; i < members.size(); i++) {
+                try {
+                    return results.take().get();
+                } catch (ExecutionException e) {
+                    //Another member may still get there:
+                    failure = e;
+                }
+            }
+            //Usually the board itself, which every member rejects the same way:
+            if (failure.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) failure.getCause();
+            }
+            throw new IllegalStateException("Every member of the portfolio failed", failure.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the portfolio", e);
+        } finally {
+            for (final CancellationToken memberToken : tokens) {
+                memberToken.cancel();
+            }
+            //Members that have not started yet never will:
+            for (final Future<T> future : futures) {
+                future.cancel(false);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Race<T> {
+
+        T run(Member member, CancellationToken token);
+
+    }
+
+    @FunctionalInterface
+    private interface Solve {
+
+        SolveResult solve(SudokuBoard board, CancellationToken token);
+
+    }
+
+    @FunctionalInterface
+    private interface Count {
+
+        SearchOutcome countSolutions(SudokuBoard board, long limit, CancellationToken token);
+
+    }
+
+    private static class Member {
+
+        private final String name;
+        private final Solve solve;
+        private final Count count;
+
+        private Member(String name, Solve solve, Count count) {
+            this.name = name;
+            this.solve = solve;
+            this.count = count;
+        }
+
+    }
+
+}
@@ -0,0 +1,13 @@
+package com.example.demo.service;
+
+import lombok.Value;
+
+@Value
+public class SearchOutcome {
+
+    //Solutions passed to the listener or counted:
+    long found;
+    SearchStatus status;
+    SolveStats stats;
+
+}
@@ -0,0 +1,18 @@
+package com.example.demo.service;
+
+/**
+ * How a search ended. Only an exhausted search has found every solution; the others return what they
+ * found until they stopped.
+ */
+public enum SearchStatus {
+
+    //Every branch was searched:
+    EXHAUSTED,
+    //The solution limit was reached or the listener asked to stop:
+    LIMIT_REACHED,
+    //The time budget of the cancellation token ran out:
+    TIMED_OUT,
+    //The cancellation token was cancelled:
+    CANCELLED
+
+}
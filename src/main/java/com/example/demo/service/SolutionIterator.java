@@ -0,0 +1,125 @@
+package com.example.demo.service;
+
+import com.example.demo.model.SudokuBoard;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Flow;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Pulls the solutions of a {@link SolutionPublisher} one at a time: {@link #hasNext()} requests the next
+ * solution and blocks until the search finds it or ends, so the search only runs while the caller asks.
+ * A search that stopped early throws its {@link com.example.demo.exception.SearchStoppedException} from
+ * {@code hasNext()} once the solutions found before are taken. Close the iterator to stop the search when
+ * leaving before the end.
+ */
+public class SolutionIterator implements Iterator<SudokuBoard>, Flow.Subscriber<SudokuBoard>, AutoCloseable {
+
+    private Flow.Subscription subscription;
+    private SudokuBoard next;
+    private boolean requested;
+    private boolean done;
+    private Throwable failure;
+
+    public SolutionIterator(Flow.Publisher<SudokuBoard> publisher) {
+        publisher.subscribe(this);
+    }
+
+    @Override
+    public synchronized void onSubscribe(final Flow.Subscription subscription) {
+        this.subscription = subscription;
+    }
+
+    @Override
+    public synchronized void onNext(final SudokuBoard solution) {
+        next = solution;
+        requested = false;
+        notifyAll();
+    }
+
+    @Override
+    public synchronized void onError(final Throwable throwable) {
+        failure = throwable;
+        done = true;
+        notifyAll();
+    }
+
+    @Override
+    public synchronized void onComplete() {
+        done = true;
+        notifyAll();
+    }
+
+    @Override
+    public boolean hasNext() {
+        final boolean request;
+        synchronized (this) {
+            if (next != null) {
+                return true;
+            }
+            request = !done && !requested;
+            requested = true;
+        }
+        //Outside the lock, a publisher may deliver from within request:
+        if (request) {
+            subscription.request(1);
+        }
+        synchronized (this) {
+            while (next == null && !done) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    close();
+                    throw new IllegalStateException("Interrupted while waiting for the next solution", e);
+                }
+            }
+            if (next != null) {
+                return true;
+            }
+            if (failure instanceof RuntimeException) {
+                throw (RuntimeException) failure;
+            }
+            if (failure != null) {
+                throw new IllegalStateException("The search failed", failure);
+            }
+            return false;
+        }
+    }
+
+    @Override
+    public SudokuBoard next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        synchronized (this) {
+            final SudokuBoard solution = next;
+            next = null;
+            return solution;
+        }
+    }
+
+    /**
+     * The remaining solutions as a sequential stream that closes this iterator when it is closed.
+     */
+    public Stream<SudokuBoard> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL),
+                false).onClose(this::close);
+    }
+
+    @Override
+    public void close() {
+        final Flow.Subscription subscription;
+        synchronized (this) {
+            subscription = this.subscription;
+            done = true;
+            notifyAll();
+        }
+        subscription.cancel();
+    }
+
+}
@@ -0,0 +1,13 @@
+package com.example.demo.service;
+
+import com.example.demo.model.SudokuBoard;
+
+@FunctionalInterface
+public interface SolutionListener {
+
+    /**
+     * Called for every solution as soon as it is found. Returning false stops the search.
+     */
+    boolean onSolution(SudokuBoard solution);
+
+}
@@ -0,0 +1,181 @@
+package com.example.demo.service;
+
+import com.example.demo.exception.SearchStoppedException;
+import com.example.demo.model.SudokuBoard;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Publishes the solutions of a search as they are found, only as fast as the subscriber asks for them.
+ * Every subscription runs a search of its own on the executor, started by the first request; the search
+ * waits inside the solution listener whenever all the requested solutions have been delivered, so it never
+ * gets further ahead of the subscriber than one solution and holds no more than the grids on its stack. The
+ * wait is a {@link ForkJoinPool#managedBlock managed block}, so a solver pool worker parked for a slow
+ * subscriber is made up for rather than taken from the other searches.
+ * <p>
+ * An exhausted search completes the subscription; one stopped by its token ends it with a
+ * {@link SearchStoppedException}. Cancelling the subscription stops the search at its next node.
+ */
+public class SolutionPublisher implements Flow.Publisher<SudokuBoard> {
+
+    //How often a search waiting for demand looks at its token, which has no way to wake it:
+    private static final long TOKEN_CHECK_MILLIS = 10;
+
+    private final Search search;
+    private final CancellationToken token;
+    private final Executor executor;
+
+    public SolutionPublisher(Search search, CancellationToken token, Executor executor) {
+        this.search = search;
+        this.token = token;
+        this.executor = executor;
+    }
+
+    @Override
+    public void subscribe(final Flow.Subscriber<? super SudokuBoard> subscriber) {
+        subscriber.onSubscribe(new Subscription(subscriber));
+    }
+
+    /**
+     * This publisher, completing the future with the outcome of a subscription's search once it ends, stopped
+     * or not, or exceptionally with what it threw; for the statistics, which no subscriber signal carries.
+     */
+    public SolutionPublisher withOutcome(final CompletableFuture<SearchOutcome> outcome) {
+        return new SolutionPublisher((listener, searchToken) -> {
+            try {
+                final SearchOutcome result = search.run(listener, searchToken);
+                outcome.complete(result);
+                return result;
+            } catch (RuntimeException | Error e) {
+                outcome.completeExceptionally(e);
+                throw e;
+            }
+        }, token, executor);
+    }
+
+    /**
+     * A search passing its solutions to the listener until it returns false or the token stops it, as
+     * {@link SolverEngine#search(SudokuBoard, SolutionListener, CancellationToken)} does for a board.
+     */
+    @FunctionalInterface
+    public interface Search {
+
+        SearchOutcome run(SolutionListener listener, CancellationToken token);
+
+    }
+
+    private class Subscription implements Flow.Subscription, SolutionListener, ForkJoinPool.ManagedBlocker {
+
+        private final Flow.Subscriber<? super SudokuBoard> subscriber;
+        //Cancelled with the subscription, without cancelling the token it was given:
+        private final CancellationToken searchToken = token.child();
+        private long demand;
+        private boolean started;
+        private boolean cancelled;
+
+        private Subscription(Flow.Subscriber<? super SudokuBoard> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(final long n) {
+            if (n <= 0) {
+                cancel();
+                subscriber.onError(new IllegalArgumentException("Expected a positive request but got " + n));
+                return;
+            }
+            final boolean start;
+            synchronized (this) {
+                if (cancelled) {
+                    return;
+                }
+                demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+                start = !started;
+                started = true;
+                notifyAll();
+            }
+            if (start) {
+                executor.execute(this::run);
+            }
+        }
+
+        @Override
+        public void cancel() {
+            synchronized (this) {
+                cancelled = true;
+                notifyAll();
+            }
+            searchToken.cancel();
+        }
+
+        //Called by one search thread at a time, which is what keeps the onNext calls in sequence:
+        @Override
+        public boolean onSolution(final SudokuBoard solution) {
+            try {
+                ForkJoinPool.managedBlock(this);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            synchronized (this) {
+                //Released without demand, the token stopped the search:
+                if (cancelled || demand == 0) {
+                    return false;
+                }
+                if (demand != Long.MAX_VALUE) {
+                    demand--;
+                }
+            }
+            subscriber.onNext(solution);
+            return true;
+        }
+
+        @Override
+        public synchronized boolean isReleasable() {
+            return demand > 0 || cancelled || token.check() != null;
+        }
+
+        @Override
+        public synchronized boolean block() throws InterruptedException {
+            if (!isReleasable()) {
+                wait(TOKEN_CHECK_MILLIS);
+            }
+            return isReleasable();
+        }
+
+        private void run() {
+            final SearchOutcome outcome;
+            try {
+                outcome = search.run(this, searchToken);
+            } catch (Throwable e) {
+                //Signalled on Errors too, else a subscriber waiting for the next solution would wait forever:
+                if (!isCancelled()) {
+                    subscriber.onError(e);
+                }
+                if (e instanceof Error) {
+                    throw (Error) e;
+                }
+                return;
+            }
+            if (isCancelled()) {
+                return;
+            }
+            //Stopped while waiting for demand, the search itself reports a listener that asked to stop:
+            final SearchStatus stopped = Thread.currentThread().isInterrupted() ? SearchStatus.CANCELLED : token.check();
+            if (outcome.getStatus() != SearchStatus.EXHAUSTED && stopped != null) {
+                subscriber.onError(new SearchStoppedException(stopped));
+            } else {
+                subscriber.onComplete();
+            }
+        }
+
+        private synchronized boolean isCancelled() {
+            return cancelled;
+        }
+
+    }
+
+}
@@ -0,0 +1,20 @@
+package com.example.demo.service;
+
+import com.example.demo.model.SudokuBoard;
+import lombok.Value;
+
+import java.util.Set;
+
+@Value
+public class SolveResult {
+
+    //Every solution when the search was exhausted, else the ones found before it stopped:
+    Set<SudokuBoard> solutions;
+    SolveStats stats;
+    SearchStatus status;
+
+    public long getNodesExpanded() {
+        return stats.getNodes();
+    }
+
+}
@@ -0,0 +1,23 @@
+package com.example.demo.service;
+
+import lombok.Value;
+
+/**
+ * What one search did. Backtracks are nodes given up because they turned out contradictory and forks are
+ * the subtrees handed to the pool as separate tasks. Propagation time is summed over the workers, so with
+ * parallel search it can exceed the elapsed time.
+ */
+@Value
+public class SolveStats {
+
+    public static final SolveStats NONE = new SolveStats(0, 0, 0, 0, 0, 0, 0);
+
+    long nodes;
+    int maxDepth;
+    long backtracks;
+    long eliminations;
+    long forks;
+    long propagationNanos;
+    long elapsedNanos;
+
+}
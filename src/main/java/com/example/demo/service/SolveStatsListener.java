@@ -0,0 +1,13 @@
+package com.example.demo.service;
+
+/**
+ * Receives the statistics of every search an engine runs.
+ */
+@FunctionalInterface
+public interface SolveStatsListener {
+
+    SolveStatsListener NONE = (engine, stats) -> { };
+
+    void onStats(String engine, SolveStats stats);
+
+}
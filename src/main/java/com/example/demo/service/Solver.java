@@ -1,53 +1,427 @@
 package com.example.demo.service;
 
-import com.example.demo.exception.ValueAlreadySetException;
-import com.example.demo.model.Position;
+import com.example.demo.config.SolverProperties;
+import com.example.demo.model.CandidateGrid;
 import com.example.demo.model.SudokuBoard;
-import com.example.demo.model.Value;
-import lombok.SneakyThrows;
+import com.example.demo.service.branching.BranchingStrategies;
+import com.example.demo.service.branching.BranchingStrategy;
+import com.example.demo.service.propagation.Propagator;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
 
 @Component
-public class Solver {
+public class Solver implements SolverEngine {
 
-    @SneakyThrows
-    public Set<SudokuBoard> findSolutions(final SudokuBoard board) {
-        if (! board.isValid()) {
-            return Collections.emptySet();
+    public static final String NAME = "backtracking";
+
+    private final Propagator propagator;
+    private final ForkJoinPool solverPool;
+    private final SolverProperties solverProperties;
+    private final SolveStatsListener statsListener;
+    private final BranchingStrategy branching;
+    //Whether searches run on the solver pool, splitting the top of the tree, or on the calling thread:
+    private final boolean forking;
+
+    /**
+     * A solver branching as {@code solver.branching} says.
+     */
+    @Autowired
+    public Solver(Propagator propagator, ForkJoinPool solverPool, SolverProperties solverProperties,
+                  SolveStatsListener statsListener, BranchingStrategies branchingStrategies) {
+        this(propagator, solverPool, solverProperties, statsListener,
+                branchingStrategies.get(solverProperties.getBranching()));
+    }
+
+    /**
+     * A solver picking {@code solver.branching} from the standard strategies, for use without Spring.
+     */
+    public Solver(Propagator propagator, ForkJoinPool solverPool, SolverProperties solverProperties,
+                  SolveStatsListener statsListener) {
+        this(propagator, solverPool, solverProperties, statsListener, BranchingStrategies.standard());
+    }
+
+    private Solver(Propagator propagator, ForkJoinPool solverPool, SolverProperties solverProperties,
+                   SolveStatsListener statsListener, BranchingStrategy branching) {
+        this(propagator, solverPool, solverProperties, statsListener, branching, true);
+    }
+
+    private Solver(Propagator propagator, ForkJoinPool solverPool, SolverProperties solverProperties,
+                   SolveStatsListener statsListener, BranchingStrategy branching, boolean forking) {
+        this.propagator = propagator;
+        this.solverPool = solverPool;
+        this.solverProperties = solverProperties;
+        this.statsListener = statsListener;
+        this.branching = branching;
+        this.forking = forking;
+    }
+
+    /**
+     * This solver with another branching strategy, for a single solve.
+     */
+    public Solver withBranching(final BranchingStrategy branching) {
+        return new Solver(propagator, solverPool, solverProperties, statsListener, branching, forking);
+    }
+
+    /**
+     * This solver walking the whole tree on the calling thread, never handing it on to the solver pool.
+     */
+    public Solver sequential() {
+        return new Solver(propagator, solverPool, solverProperties, statsListener, branching, false);
+    }
+
+    public BranchingStrategy getBranching() {
+        return branching;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public SolveResult solve(final SudokuBoard board, final CancellationToken token) {
+        return solve(board, propagator, token);
+    }
+
+    public SolveResult solve(final SudokuBoard board, final Propagator propagator) {
+        return solve(board, propagator, CancellationToken.NONE);
+    }
+
+    public SolveResult solve(final SudokuBoard board, final Propagator propagator, final CancellationToken token) {
+        final Set<SudokuBoard> solutions = ConcurrentHashMap.newKeySet();
+        final Search search = new Search(propagator, grid -> solutions.add(grid.applyTo(board)), token);
+        search.run(CandidateGrid.of(board));
+        return new SolveResult(solutions, search.stats, search.getStatus());
+    }
+
+    @Override
+    public SearchOutcome search(final SudokuBoard board, final SolutionListener listener,
+                                final CancellationToken token) {
+        return search(board, propagator, listener, token);
+    }
+
+    public SearchOutcome search(final SudokuBoard board, final Propagator propagator,
+                                final SolutionListener listener, final CancellationToken token) {
+        final Search search = new Search(propagator, grid -> listener.onSolution(grid.applyTo(board)), token);
+        return new SearchOutcome(search.run(CandidateGrid.of(board)), search.getStatus(), search.stats);
+    }
+
+    /**
+     * Streams from a search walking the tree on the executor's thread alone: one parked for its subscriber
+     * holds no solver pool worker, so a slow reader never slows the other searches down.
+     */
+    @Override
+    public SolutionPublisher solutions(final SudokuBoard board, final CancellationToken token, final Executor executor) {
+        return solutions(board, propagator, token, executor);
+    }
+
+    public SolutionPublisher solutions(final SudokuBoard board, final Propagator propagator,
+                                       final CancellationToken token, final Executor executor) {
+        return new SolutionPublisher((listener, searchToken) -> {
+            final Search search = new Search(propagator, grid -> listener.onSolution(grid.applyTo(board)), searchToken);
+            search.forking = false;
+            return new SearchOutcome(search.run(CandidateGrid.of(board)), search.getStatus(), search.stats);
+        }, token, executor);
+    }
+
+    @Override
+    public SearchOutcome countSolutions(final SudokuBoard board, final long limit, final CancellationToken token) {
+        return countSolutions(board, propagator, limit, token);
+    }
+
+    public SearchOutcome countSolutions(final SudokuBoard board, final Propagator propagator, final long limit,
+                                        final CancellationToken token) {
+        final Search search = new Search(propagator, solution -> true, token);
+        search.limit = limit;
+        return new SearchOutcome(search.run(CandidateGrid.of(board)), search.getStatus(), search.stats);
+    }
+
+    /**
+     * Searches a grid of any size, passing the solved grids to the callback until it returns false.
+     * The solved grid is still searched on after the callback returns, copy it to keep it.
+     * Returns the number of solutions found.
+     */
+    public long search(final CandidateGrid grid, final Predicate<CandidateGrid> onSolution) {
+        return new Search(propagator, onSolution, CancellationToken.NONE).run(grid.copy());
+    }
+
+    public long countSolutions(final CandidateGrid grid, final long limit) {
+        final Search search = new Search(propagator, solution -> true, CancellationToken.NONE);
+        search.limit = limit;
+        return search.run(grid.copy());
+    }
+
+    private class Search {
+
+        private final Propagator propagator;
+        //Only ever called by one thread at a time, the one holding the listener lock:
+        private final Predicate<CandidateGrid> onSolution;
+        //Apart from this monitor, since a listener may block for as long as its consumer takes:
+        private final ReentrantLock listenerLock = new ReentrantLock();
+        private final CancellationToken token;
+        //Timing every propagation costs two clock reads per node, so it is left out without metrics:
+        private final boolean timed = solverProperties.isMetrics();
+        private final boolean undoTrail = solverProperties.isUndoTrail();
+        private long limit = Long.MAX_VALUE;
+        private boolean forking = Solver.this.forking;
+        private long found;
+        private SolveStats stats;
+        //Set once, by whichever task stops the search first; every task returns at its next node:
+        private volatile boolean stopped;
+        private SearchStatus status;
+        //Nodes the current attempt may expand before starting over, and the ones it did (counted per check):
+        private volatile long restartNodes;
+        private final AtomicLong attemptNodes = new AtomicLong();
+        private boolean restarting;
+
+        private Search(Propagator propagator, Predicate<CandidateGrid> onSolution, CancellationToken token) {
+            this.propagator = propagator;
+            this.onSolution = onSolution;
+            this.token = token;
+        }
+
+        private long run(final CandidateGrid grid) {
+            final long start = System.nanoTime();
+            final Counters counters = new Counters();
+            for (int restart = 0; ; restart++) {
+                restartNodes = branching.getRestartNodes(restart);
+                attemptNodes.set(0);
+                //A restart starts over from the grid as it was given:
+                final SearchTask task = new SearchTask(this, restartNodes == Long.MAX_VALUE ? grid : grid.copy(), 0);
+                counters.add(forking ? solverPool.invoke(task) : task.compute());
+                synchronized (this) {
+                    if (! restarting) {
+                        break;
+                    }
+                    restarting = false;
+                    stopped = false;
+                }
+            }
+            stats = counters.toStats(System.nanoTime() - start);
+            statsListener.onStats(NAME, stats);
+            synchronized (this) {
+                return found;
+            }
+        }
+
+        private void search(final CandidateGrid grid, final int depth, final Counters counters) {
+            if (stopped) {
+                return;
+            }
+            if (counters.nodes % CancellationToken.CHECK_INTERVAL == 0 && checkpoint()) {
+                return;
+            }
+            counters.nodes++;
+            counters.maxDepth = Math.max(counters.maxDepth, depth);
+            final long eliminations = grid.getEliminations();
+            final boolean consistent;
+            if (timed) {
+                final long start = System.nanoTime();
+                consistent = propagator.propagate(grid);
+                counters.propagationNanos += System.nanoTime() - start;
+            } else {
+                consistent = propagator.propagate(grid);
+            }
+            counters.eliminations += grid.getEliminations() - eliminations;
+            if (! consistent) {
+                counters.backtracks++;
+                return;
+            }
+            if (grid.isSolved()) {
+                found(grid);
+                return;
+            }
+
+            //Brute force the cell the branching strategy picks...
+            final int cell = branching.selectCell(grid);
+            final int[] values = counters.values(depth, grid.getGeometry().getSize());
+            final int count = branching.orderValues(grid, cell, values);
+            if (forking && depth < solverProperties.getSplitDepth()
+                    && grid.getGeometry().getCells() - grid.getSolvedCount() >= solverProperties.getSplitThreshold()) {
+                //...in parallel while the subtrees are big enough to be worth a task:
+                final List<SearchTask> tasks = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    final CandidateGrid child = grid.copy();
+                    if (child.assign(cell, values[i])) {
+                        tasks.add(new SearchTask(this, child, depth + 1));
+                    }
+                }
+                counters.forks += tasks.size();
+                for (final SearchTask task : ForkJoinTask.invokeAll(tasks)) {
+                    counters.add(task.join());
+                }
+            } else if (undoTrail) {
+                //...on this grid, undoing each branch, so only the forked tasks ever hold a grid:
+                final int mark = grid.mark();
+                for (int i = 0; i < count && ! stopped; i++) {
+                    if (grid.assign(cell, values[i])) {
+                        search(grid, depth + 1, counters);
+                    }
+                    grid.undo(mark);
+                }
+            } else {
+                for (int i = 0; i < count && ! stopped; i++) {
+                    final CandidateGrid child = grid.copy();
+                    if (child.assign(cell, values[i])) {
+                        search(child, depth + 1, counters);
+                    }
+                }
+            }
         }
-        if (board.isSolved()) {
-            return Collections.singleton(board);
+
+        //Returns true when the search must stop, for good or to start over:
+        private boolean checkpoint() {
+            final SearchStatus cancelled = token.check();
+            if (cancelled != null) {
+                stop(cancelled);
+                return true;
+            }
+            if (restartNodes != Long.MAX_VALUE
+                    && attemptNodes.addAndGet(CancellationToken.CHECK_INTERVAL) > restartNodes) {
+                restart();
+                return stopped;
+            }
+            return false;
         }
 
-        EnumSet<Value> fewestPossibles = EnumSet.allOf(Value.class);
-        Position fewestPossiblePosition = null;
+        private synchronized void restart() {
+            if (! stopped && found == 0) {
+                restarting = true;
+                stopped = true;
+            }
+        }
 
-        for (final Position position : board.getUnsolvedPositions()) {
-            final EnumSet<Value> possibleValues = board.getPossibleValues(position);
-            if (possibleValues.size() == 1) {
-                return findSolutions(board.withValue(position, possibleValues.iterator().next()));
-            } else if (possibleValues.size() < fewestPossibles.size()) {
-                fewestPossibles = possibleValues;
-                fewestPossiblePosition = position;
+        private void found(final CandidateGrid grid) {
+            lockListener();
+            try {
+                final long solutions;
+                synchronized (this) {
+                    if (stopped) {
+                        return;
+                    }
+                    solutions = ++found;
+                    //Starting over would find this solution again:
+                    restartNodes = Long.MAX_VALUE;
+                }
+                //Outside the monitor, so the other tasks can still stop and the status can still be read:
+                if (! onSolution.test(grid) || solutions >= limit) {
+                    stop(SearchStatus.LIMIT_REACHED);
+                }
+            } finally {
+                listenerLock.unlock();
             }
         }
 
-        //Brute force it...
-        final Position position = fewestPossiblePosition;
-        return fewestPossibles
-                .parallelStream()
-                .map(value -> {
-                    try {
-                        return findSolutions(board.withValue(position, value));
-                    } catch (ValueAlreadySetException e) {
-                        return Collections.<SudokuBoard>emptySet();
+        //Waits for the listener as a managed blocker, so a pool worker parked here is made up for:
+        private void lockListener() {
+            if (listenerLock.tryLock()) {
+                return;
+            }
+            try {
+                ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+                    @Override
+                    public boolean block() {
+                        listenerLock.lock();
+                        return true;
+                    }
+
+                    @Override
+                    public boolean isReleasable() {
+                        return listenerLock.isHeldByCurrentThread() || listenerLock.tryLock();
                     }
-                })
-                .flatMap(Collection::stream)
-                .collect(Collectors.toSet());
+                });
+            } catch (InterruptedException e) {
+                //Only thrown by blockers that wait interruptibly, lock does not
+                Thread.currentThread().interrupt();
+                listenerLock.lock();
+            }
+        }
+
+        private synchronized void stop(final SearchStatus reason) {
+            if (! stopped) {
+                status = reason;
+                stopped = true;
+            }
+        }
+
+        private synchronized SearchStatus getStatus() {
+            return status == null ? SearchStatus.EXHAUSTED : status;
+        }
+
+    }
+
+    //Kept per task so the workers never share a counter, and added up as the tasks are joined:
+    private static class Counters {
+
+        private long nodes;
+        private int maxDepth;
+        private long backtracks;
+        private long eliminations;
+        private long forks;
+        private long propagationNanos;
+
+        //Scratch space for the value order of each depth, reused by every node of the task at that depth:
+        private int[][] values;
+
+        private int[] values(final int depth, final int size) {
+            if (values == null) {
+                values = new int[8][];
+            } else if (depth >= values.length) {
+                values = Arrays.copyOf(values, Math.max(depth + 1, values.length * 2));
+            }
+            if (values[depth] == null) {
+                values[depth] = new int[size];
+            }
+            return values[depth];
+        }
+
+        private void add(final Counters other) {
+            nodes += other.nodes;
+            maxDepth = Math.max(maxDepth, other.maxDepth);
+            backtracks += other.backtracks;
+            eliminations += other.eliminations;
+            forks += other.forks;
+            propagationNanos += other.propagationNanos;
+        }
+
+        private SolveStats toStats(final long elapsedNanos) {
+            return new SolveStats(nodes, maxDepth, backtracks, eliminations, forks, propagationNanos, elapsedNanos);
+        }
+
+    }
+
+    private static class SearchTask extends RecursiveTask<Counters> {
+
+        private final Search search;
+        private final CandidateGrid grid;
+        private final int depth;
+
+        private SearchTask(Search search, CandidateGrid grid, int depth) {
+            this.search = search;
+            this.grid = grid;
+            this.depth = depth;
+        }
+
+        @Override
+        protected Counters compute() {
+            final Counters counters = new Counters();
+            if (search.undoTrail) {
+                grid.startTrail();
+            }
+            search.search(grid, depth, counters);
+            return counters;
+        }
+
     }
 
 }
@@ -0,0 +1,64 @@
+package com.example.demo.service;
+
+import com.example.demo.model.SudokuBoard;
+
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+public interface SolverEngine {
+
+    String getName();
+
+    /**
+     * Finds every solution, or the ones found before the token stopped the search.
+     */
+    SolveResult solve(SudokuBoard board, CancellationToken token);
+
+    /**
+     * Streams the solutions to the listener without keeping them, so memory use does not depend on
+     * the number of solutions, until the listener returns false or the token stops the search.
+     */
+    SearchOutcome search(SudokuBoard board, SolutionListener listener, CancellationToken token);
+
+    /**
+     * Counts solutions without building them, stopping as soon as the limit is reached or the token
+     * stops the search.
+     */
+    SearchOutcome countSolutions(SudokuBoard board, long limit, CancellationToken token);
+
+    default SolveResult solve(SudokuBoard board) {
+        return solve(board, CancellationToken.NONE);
+    }
+
+    /**
+     * Returns the number of solutions passed to the listener.
+     */
+    default long search(SudokuBoard board, SolutionListener listener) {
+        return search(board, listener, CancellationToken.NONE).getFound();
+    }
+
+    default long countSolutions(SudokuBoard board, long limit) {
+        return countSolutions(board, limit, CancellationToken.NONE).getFound();
+    }
+
+    /**
+     * Builds every solution before returning; {@link #solutions(SudokuBoard, CancellationToken, Executor)}
+     * hands them out as they are found instead.
+     */
+    default Set<SudokuBoard> findSolutions(SudokuBoard board) {
+        return solve(board).getSolutions();
+    }
+
+    /**
+     * The solutions as they are found, with the search running on the executor only as far ahead as the
+     * subscriber requests. Read them one at a time through a {@link SolutionIterator}.
+     */
+    default SolutionPublisher solutions(SudokuBoard board, CancellationToken token, Executor executor) {
+        return new SolutionPublisher((listener, searchToken) -> search(board, listener, searchToken), token, executor);
+    }
+
+    default boolean isUnique(SudokuBoard board) {
+        return countSolutions(board, 2) == 1;
+    }
+
+}
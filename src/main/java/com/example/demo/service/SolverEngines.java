@@ -0,0 +1,30 @@
+package com.example.demo.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Component
+public class SolverEngines {
+
+    public static final String DEFAULT = Solver.NAME;
+
+    private final Map<String, SolverEngine> engines;
+
+    public SolverEngines(List<SolverEngine> engines) {
+        this.engines = engines.stream()
+                .collect(Collectors.toMap(SolverEngine::getName, Function.identity()));
+    }
+
+    public SolverEngine get(String name) {
+        final SolverEngine engine = engines.get(name);
+        if (engine == null) {
+            throw new IllegalArgumentException("Unknown solver engine '" + name + "', expected one of " + engines.keySet());
+        }
+        return engine;
+    }
+
+}
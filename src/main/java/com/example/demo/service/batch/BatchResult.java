@@ -0,0 +1,18 @@
+package com.example.demo.service.batch;
+
+import lombok.Value;
+
+@Value
+public class BatchResult {
+
+    long puzzles;
+    long solved;
+    long unsolvable;
+    long invalid;
+    long elapsedNanos;
+
+    public double getPuzzlesPerSecond() {
+        return elapsedNanos == 0 ? 0 : puzzles * 1_000_000_000d / elapsedNanos;
+    }
+
+}
@@ -0,0 +1,47 @@
+package com.example.demo.service.batch;
+
+import com.example.demo.config.BatchProperties;
+import com.example.demo.service.SolverEngines;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Paths;
+
+/**
+ * Non interactive mode: {@code --batch.input=puzzles.txt --batch.output=solutions.txt} solves the
+ * file and exits before the shell starts.
+ */
+@Component
+@ConditionalOnProperty(prefix = "batch", name = "input")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@AllArgsConstructor
+@Slf4j
+public class BatchRunner implements ApplicationRunner {
+
+    private final BatchSolver batchSolver;
+    private final BatchProperties batchProperties;
+    private final SolverEngines solverEngines;
+    private final ApplicationContext applicationContext;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        final String output = batchProperties.getOutput() != null
+                ? batchProperties.getOutput()
+                : batchProperties.getInput() + ".solved";
+        final BatchResult result = batchSolver.solveFile(Paths.get(batchProperties.getInput()), Paths.get(output),
+                solverEngines.get(batchProperties.getEngine()));
+        log.info("Solved {} of {} puzzles in {}ms ({} puzzles/sec), {} unsolvable, {} invalid",
+                result.getSolved(), result.getPuzzles(), result.getElapsedNanos() / 1_000_000,
+                Math.round(result.getPuzzlesPerSecond()), result.getUnsolvable(), result.getInvalid());
+        System.exit(SpringApplication.exit(applicationContext, () -> result.getInvalid() == 0 ? 0 : 1));
+    }
+
+}
@@ -0,0 +1,297 @@
+package com.example.demo.service.batch;
+
+import com.example.demo.config.BatchProperties;
+import com.example.demo.model.BitboardSudokuBoard;
+import com.example.demo.model.CandidateGrid;
+import com.example.demo.model.GridFormat;
+import com.example.demo.model.PuzzleFormat;
+import com.example.demo.model.SudokuBoard;
+import com.example.demo.service.Solver;
+import com.example.demo.service.SolverEngine;
+import com.example.demo.service.cache.SolutionCache;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Solves a file of puzzles in the single line format (or the {@link BinaryPuzzleFormat}), writing one line
+ * per puzzle in input order: the first solution found, or {@link #UNSOLVABLE} / {@link #INVALID}.
+ * <p>
+ * A reader thread submits the puzzles to the workers and queues the futures in input order; the
+ * writer takes them off the queue. The queue is bounded, so the reader blocks when the writer
+ * falls behind and only a fixed number of puzzles is ever held in memory: the queue, and the chunk
+ * the reader is filling.
+ * <p>
+ * Classic puzzles are gathered into chunks of {@code batch.lockstep-lanes} and propagated together by a
+ * {@link LockstepPropagator}; only the puzzles singles do not settle go on to the engine, starting from the
+ * cells propagation solved.
+ */
+@Component
+@AllArgsConstructor
+@Slf4j
+public class BatchSolver {
+
+    public static final String UNSOLVABLE = "unsolvable";
+    public static final String INVALID = "invalid";
+
+    private static final Future<String> END_OF_INPUT = CompletableFuture.completedFuture(null);
+
+    private final BatchProperties batchProperties;
+    private final SolutionCache solutionCache;
+    private final Solver solver;
+
+    public BatchResult solveFile(final Path input, final Path output, final SolverEngine engine)
+            throws IOException, InterruptedException {
+        final long start = System.nanoTime();
+        final ExecutorService workers = Executors.newFixedThreadPool(batchProperties.getWorkers());
+        final BlockingQueue<Future<String>> pending = new ArrayBlockingQueue<>(batchProperties.getQueueCapacity());
+        final AtomicReference<IOException> readFailure = new AtomicReference<>();
+        final Thread reader = new Thread(() -> {
+            try {
+                if (BinaryPuzzleFormat.isBinary(input)) {
+                    readBinary(input, pending, workers, engine);
+                } else {
+                    readText(input, pending, workers, engine);
+                }
+            } catch (IOException e) {
+                readFailure.set(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                try {
+                    pending.put(END_OF_INPUT);
+                } catch (InterruptedException e) {
+                    //The writer has given up already
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }, "batch-reader");
+        reader.start();
+
+        long puzzles = 0;
+        long unsolvable = 0;
+        long invalid = 0;
+        try (BufferedWriter writer = Files.newBufferedWriter(output, StandardCharsets.US_ASCII)) {
+            Future<String> next;
+            while ((next = pending.take()) != END_OF_INPUT) {
+                final String line = next.get();
+                if (UNSOLVABLE.equals(line)) {
+                    unsolvable++;
+                } else if (INVALID.equals(line)) {
+                    invalid++;
+                }
+                puzzles++;
+                writer.write(line);
+                writer.newLine();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Solving a puzzle failed", e.getCause());
+        } finally {
+            reader.interrupt();
+            workers.shutdownNow();
+        }
+        if (readFailure.get() != null) {
+            throw readFailure.get();
+        }
+        return new BatchResult(puzzles, puzzles - unsolvable - invalid, unsolvable, invalid, System.nanoTime() - start);
+    }
+
+    private void readText(final Path input, final BlockingQueue<Future<String>> pending,
+                          final ExecutorService workers, final SolverEngine engine)
+            throws IOException, InterruptedException {
+        final Chunks chunks = new Chunks(pending, workers, engine);
+        try (PuzzleReader puzzles = PuzzleReader.open(input)) {
+            String line;
+            while ((line = puzzles.next()) != null) {
+                final String puzzle = line;
+                if (!chunks.isEnabled() || puzzle.length() != PuzzleFormat.LENGTH) {
+                    chunks.put(workers.submit(() -> solve(engine, puzzle)));
+                    continue;
+                }
+                try {
+                    PuzzleFormat.parseCells(puzzle, chunks.nextValues());
+                } catch (IllegalArgumentException e) {
+                    log.debug("Skipping invalid puzzle '{}': {}", puzzle, e.getMessage());
+                    chunks.put(CompletableFuture.completedFuture(INVALID));
+                    continue;
+                }
+                chunks.addValues();
+            }
+        }
+        chunks.flush();
+    }
+
+    //Binary boards are decoded straight into bitboards (or lanes) on the reader thread:
+    private void readBinary(final Path input, final BlockingQueue<Future<String>> pending,
+                            final ExecutorService workers, final SolverEngine engine)
+            throws IOException, InterruptedException {
+        final Chunks chunks = new Chunks(pending, workers, engine);
+        try (BinaryPuzzleReader puzzles = new BinaryPuzzleReader(input)) {
+            if (chunks.isEnabled()) {
+                while (puzzles.next(chunks.nextValues())) {
+                    chunks.addValues();
+                }
+            } else {
+                SudokuBoard board;
+                while ((board = puzzles.nextBoard()) != null) {
+                    final SudokuBoard puzzle = board;
+                    pending.put(workers.submit(() -> solve(engine, puzzle)));
+                }
+            }
+        }
+        chunks.flush();
+    }
+
+    private String solve(final SolverEngine engine, final String puzzle) {
+        if (puzzle.length() != PuzzleFormat.LENGTH) {
+            return solveGrid(puzzle);
+        }
+        final SudokuBoard board;
+        try {
+            board = PuzzleFormat.parse(SudokuBoard.emptyBitboard(), puzzle);
+        } catch (IllegalArgumentException e) {
+            log.debug("Skipping invalid puzzle '{}': {}", puzzle, e.getMessage());
+            return INVALID;
+        }
+        return solve(engine, board);
+    }
+
+    private String solve(final SolverEngine engine, final SudokuBoard board) {
+        return solutionCache.findFirst(engine, board).map(PuzzleFormat::format).orElse(UNSOLVABLE);
+    }
+
+    //Grids of other sizes are solved by the backtracking solver, whatever the engine:
+    private String solveGrid(final String puzzle) {
+        final CandidateGrid grid;
+        try {
+            grid = GridFormat.parse(puzzle);
+        } catch (IllegalArgumentException e) {
+            log.debug("Skipping invalid puzzle '{}': {}", puzzle, e.getMessage());
+            return INVALID;
+        }
+        final AtomicReference<String> solution = new AtomicReference<>(UNSOLVABLE);
+        solver.search(grid, s -> {
+            solution.set(GridFormat.format(s));
+            return false;
+        });
+        return solution.get();
+    }
+
+    //Runs on a worker, which keeps a propagator of its own for all its chunks:
+    private void solveChunk(final int[][] values, final List<CompletableFuture<String>> results,
+                            final SolverEngine engine, final ThreadLocal<LockstepPropagator> propagators) {
+        try {
+            final LockstepPropagator propagator = propagators.get();
+            propagator.clear();
+            for (int lane = 0; lane < results.size(); lane++) {
+                propagator.add(values[lane]);
+            }
+            propagator.propagate();
+            for (int lane = 0; lane < results.size(); lane++) {
+                if (propagator.hasContradiction(lane)) {
+                    results.get(lane).complete(UNSOLVABLE);
+                    continue;
+                }
+                propagator.values(lane, values[lane]);
+                results.get(lane).complete(propagator.isSolved(lane)
+                        ? PuzzleFormat.formatCells(values[lane])
+                        : solve(engine, BitboardSudokuBoard.of(values[lane])));
+            }
+        } catch (Throwable e) {
+            //The writer waits on every lane, whatever went wrong; lanes already answered keep their result:
+            for (final CompletableFuture<String> result : results) {
+                result.completeExceptionally(e);
+            }
+            if (e instanceof Error) {
+                throw (Error) e;
+            }
+        }
+    }
+
+    /**
+     * Gathers the puzzles read into chunks for the lockstep propagator. The results of everything read while a
+     * chunk fills, lanes or not, are held back and queued in input order once the chunk is submitted, so the
+     * writer never waits on a chunk the reader is still filling. Puzzles that skip the lanes count towards the
+     * chunk too: a chunk is submitted part filled once as many results as it has lanes are held.
+     */
+    private class Chunks {
+
+        private final BlockingQueue<Future<String>> pending;
+        private final ExecutorService workers;
+        private final SolverEngine engine;
+        private final int lanes;
+        private final ThreadLocal<LockstepPropagator> propagators;
+        private final List<Future<String>> held = new ArrayList<>();
+        private int[][] values;
+        private List<CompletableFuture<String>> results;
+
+        private Chunks(final BlockingQueue<Future<String>> pending, final ExecutorService workers,
+                       final SolverEngine engine) {
+            this.pending = pending;
+            this.workers = workers;
+            this.engine = engine;
+            this.lanes = batchProperties.getLockstepLanes();
+            this.propagators = ThreadLocal.withInitial(() -> new LockstepPropagator(lanes));
+            start();
+        }
+
+        private boolean isEnabled() {
+            return lanes > 0;
+        }
+
+        private void start() {
+            values = new int[Math.max(lanes, 0)][PuzzleFormat.LENGTH];
+            results = new ArrayList<>(Math.max(lanes, 0));
+        }
+
+        //The cells of the next lane, kept once the puzzle in them is added:
+        private int[] nextValues() {
+            return values[results.size()];
+        }
+
+        private void addValues() throws InterruptedException {
+            final CompletableFuture<String> result = new CompletableFuture<>();
+            results.add(result);
+            held.add(result);
+            if (results.size() == lanes) {
+                flush();
+            }
+        }
+
+        private void put(final Future<String> result) throws InterruptedException {
+            if (held.isEmpty()) {
+                pending.put(result);
+            } else {
+                held.add(result);
+                if (held.size() >= lanes) {
+                    flush();
+                }
+            }
+        }
+
+        private void flush() throws InterruptedException {
+            if (!results.isEmpty()) {
+                final int[][] chunk = values;
+                final List<CompletableFuture<String>> chunkResults = results;
+                workers.execute(() -> solveChunk(chunk, chunkResults, engine, propagators));
+                start();
+            }
+            for (final Future<String> result : held) {
+                pending.put(result);
+            }
+            held.clear();
+        }
+
+    }
+
+}
@@ -0,0 +1,152 @@
+package com.example.demo.service.batch;
+
+import com.example.demo.model.Position;
+import com.example.demo.model.PuzzleFormat;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A compact binary format for puzzle and solution files. A 32 byte header is followed by the boards and,
+ * optionally, an index:
+ * <pre>
+ *  0  int   magic "SDKB"
+ *  4  byte  version
+ *  5  byte  encoding: {@link #PACKED} or {@link #SPARSE}
+ *  6  byte  flags: {@link #INDEXED}
+ *  8  long  number of boards
+ * 16  long  offset of the index, 0 without one
+ * 24  int   boards per index entry
+ * </pre>
+ * Packed boards take 41 bytes, a 4 bit value per cell (0 for an empty cell) with the first cell in the high
+ * nibble, which suits solutions. Sparse boards take an 81 bit map of the cells holding a clue (11 bytes, cell n
+ * in bit n % 8 of byte n / 8) followed by the clues as 4 bit values, 24 bytes for a 25 clue puzzle. Packed boards
+ * can be found by offset; the index of a sparse file holds the offset of every {@link #INDEX_STRIDE}th board.
+ * All numbers are big endian.
+ */
+public final class BinaryPuzzleFormat {
+
+    public static final int MAGIC = 0x53444B42;
+    public static final byte VERSION = 1;
+    public static final int HEADER_SIZE = 32;
+
+    public static final byte PACKED = 0;
+    public static final byte SPARSE = 1;
+    public static final byte INDEXED = 1;
+
+    public static final int INDEX_STRIDE = 256;
+
+    static final int CELLS = Position.CELLS;
+    static final int PACKED_SIZE = (CELLS + 1) / 2;
+    static final int MAP_SIZE = (CELLS + 7) / 8;
+    static final int MAX_RECORD_SIZE = MAP_SIZE + PACKED_SIZE;
+
+    private BinaryPuzzleFormat() {
+    }
+
+    /**
+     * Whether the file starts with the magic number of the format.
+     */
+    public static boolean isBinary(final Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final ByteBuffer magic = ByteBuffer.allocate(Integer.BYTES);
+            while (magic.hasRemaining() && channel.read(magic) >= 0) {
+                //Keep reading
+            }
+            return !magic.hasRemaining() && magic.getInt(0) == MAGIC;
+        }
+    }
+
+    /**
+     * Converts a file in the single line format, returning the number of boards written.
+     */
+    public static long fromText(final Path text, final Path binary, final boolean sparse, final boolean indexed)
+            throws IOException {
+        final int[] cells = new int[CELLS];
+        try (PuzzleReader lines = PuzzleReader.open(text);
+             BinaryPuzzleWriter writer = new BinaryPuzzleWriter(binary, sparse, indexed)) {
+            String line;
+            while ((line = lines.next()) != null) {
+                PuzzleFormat.parseCells(line, cells);
+                writer.write(cells);
+            }
+            return writer.getCount();
+        }
+    }
+
+    /**
+     * Converts a binary file to the single line format, returning the number of boards written.
+     */
+    public static long toText(final Path binary, final Path text) throws IOException {
+        final int[] cells = new int[CELLS];
+        long count = 0;
+        try (BinaryPuzzleReader reader = new BinaryPuzzleReader(binary);
+             BufferedWriter writer = Files.newBufferedWriter(text, StandardCharsets.US_ASCII)) {
+            while (reader.next(cells)) {
+                writer.write(PuzzleFormat.formatCells(cells));
+                writer.newLine();
+                count++;
+            }
+        }
+        return count;
+    }
+
+    static final class Header {
+
+        final byte encoding;
+        final byte flags;
+        final long count;
+        final long indexOffset;
+        final int indexStride;
+
+        Header(byte encoding, byte flags, long count, long indexOffset, int indexStride) {
+            this.encoding = encoding;
+            this.flags = flags;
+            this.count = count;
+            this.indexOffset = indexOffset;
+            this.indexStride = indexStride;
+        }
+
+        boolean isIndexed() {
+            return (flags & INDEXED) != 0;
+        }
+
+        static Header read(final ByteBuffer buffer) throws IOException {
+            if (buffer.remaining() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+                throw new IOException("Not a binary puzzle file");
+            }
+            if (buffer.get(4) != VERSION) {
+                throw new IOException("Unsupported binary puzzle file version " + buffer.get(4));
+            }
+            final Header header = new Header(buffer.get(5), buffer.get(6), buffer.getLong(8), buffer.getLong(16),
+                    buffer.getInt(24));
+            if (header.encoding != PACKED && header.encoding != SPARSE) {
+                throw new IOException("Unknown encoding " + header.encoding);
+            }
+            if (header.count < 0 || header.isIndexed() && header.indexStride <= 0) {
+                throw new IOException("Corrupt binary puzzle file header");
+            }
+            return header;
+        }
+
+        void write(final ByteBuffer buffer) {
+            buffer.putInt(0, MAGIC)
+                    .put(4, VERSION)
+                    .put(5, encoding)
+                    .put(6, flags)
+                    .put(7, (byte) 0)
+                    .putLong(8, count)
+                    .putLong(16, indexOffset)
+                    .putInt(24, indexStride)
+                    .putInt(28, 0);
+        }
+
+    }
+
+}
@@ -0,0 +1,198 @@
+package com.example.demo.service.batch;
+
+import com.example.demo.model.BitboardSudokuBoard;
+import com.example.demo.model.CandidateGrid;
+import com.example.demo.model.SudokuBoard;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static com.example.demo.service.batch.BinaryPuzzleFormat.*;
+
+/**
+ * Reads a {@link BinaryPuzzleFormat} file through memory mapped regions, decoding each board straight into
+ * cell values, a bitboard or a candidate grid: no line of text or intermediate board is created.
+ */
+public class BinaryPuzzleReader implements Closeable {
+
+    private static final long REGION_SIZE = 1L << 28;
+
+    private final FileChannel channel;
+    private final Header header;
+    //The boards end where the index starts:
+    private final long dataEnd;
+    private final int[] cells = new int[CELLS];
+    private MappedByteBuffer region;
+    private long regionStart;
+    private long nextBoard;
+    private long[] index;
+
+    public BinaryPuzzleReader(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            final long size = channel.size();
+            this.header = Header.read(channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(size, HEADER_SIZE)));
+            this.dataEnd = header.isIndexed() ? header.indexOffset : size;
+            if (dataEnd < HEADER_SIZE || dataEnd > size) {
+                throw new IOException("Corrupt binary puzzle file header");
+            }
+            map(HEADER_SIZE);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public long getCount() {
+        return header.count;
+    }
+
+    public boolean isSparse() {
+        return header.encoding == SPARSE;
+    }
+
+    /**
+     * Decodes the next board into the array, returning false at the end of the file.
+     *
+     * @param values receives per cell index the value ordinal + 1, or 0 for an empty cell
+     */
+    public boolean next(final int[] values) throws IOException {
+        if (nextBoard >= header.count) {
+            return false;
+        }
+        if (region.remaining() < MAX_RECORD_SIZE && regionStart + region.limit() < dataEnd) {
+            map(regionStart + region.position());
+        }
+        try {
+            if (header.encoding == SPARSE) {
+                readSparse(values);
+            } else {
+                readPacked(values);
+            }
+        } catch (IndexOutOfBoundsException e) {
+            throw new IOException("Binary puzzle file ends inside board " + nextBoard);
+        }
+        nextBoard++;
+        return true;
+    }
+
+    /**
+     * The next board as a bitboard, or null at the end of the file.
+     */
+    public SudokuBoard nextBoard() throws IOException {
+        return next(cells) ? BitboardSudokuBoard.of(cells) : null;
+    }
+
+    /**
+     * The next board as a candidate grid for the backtracking solver, or null at the end of the file.
+     * Clues that contradict each other leave the grid marked as a contradiction.
+     */
+    public CandidateGrid nextGrid() throws IOException {
+        if (!next(cells)) {
+            return null;
+        }
+        final CandidateGrid grid = CandidateGrid.empty();
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (cells[cell] != 0 && !grid.assign(cell, cells[cell] - 1)) {
+                grid.markContradiction();
+                break;
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * Moves to the board with the given number (from 0), so the next read returns it. Packed files are
+     * positioned directly, sparse files from the nearest index entry before it (or the start without an index).
+     */
+    public void seek(final long board) throws IOException {
+        if (board < 0 || board > header.count) {
+            throw new IllegalArgumentException("No board " + board + " in a file of " + header.count);
+        }
+        //The end of the file, which has no index entry when the count is a multiple of the stride:
+        if (board == header.count) {
+            nextBoard = board;
+            return;
+        }
+        if (header.encoding == PACKED) {
+            map(HEADER_SIZE + board * PACKED_SIZE);
+            nextBoard = board;
+            return;
+        }
+        long from = 0;
+        long offset = HEADER_SIZE;
+        if (header.isIndexed() && board >= header.indexStride) {
+            from = board / header.indexStride * header.indexStride;
+            offset = index()[(int) (board / header.indexStride)];
+        }
+        map(offset);
+        nextBoard = from;
+        while (nextBoard < board) {
+            next(cells);
+        }
+    }
+
+    private long[] index() throws IOException {
+        if (index == null) {
+            final int entries = (int) ((header.count + header.indexStride - 1) / header.indexStride);
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, header.indexOffset,
+                    (long) entries * Long.BYTES);
+            final long[] offsets = new long[entries];
+            for (int entry = 0; entry < entries; entry++) {
+                offsets[entry] = buffer.getLong();
+            }
+            index = offsets;
+        }
+        return index;
+    }
+
+    private void readPacked(final int[] values) throws IOException {
+        for (int cell = 0; cell < CELLS; cell += 2) {
+            final int pair = region.get() & 0xFF;
+            values[cell] = value(pair >>> 4);
+            if (cell + 1 < CELLS) {
+                values[cell + 1] = value(pair & 0xF);
+            }
+        }
+    }
+
+    private void readSparse(final int[] values) throws IOException {
+        final int map = region.position();
+        region.position(map + MAP_SIZE);
+        int pair = -1;
+        for (int cell = 0; cell < CELLS; cell++) {
+            if ((region.get(map + cell / 8) & 1 << (cell % 8)) == 0) {
+                values[cell] = 0;
+            } else if (pair < 0) {
+                pair = region.get() & 0xFF;
+                values[cell] = value(pair >>> 4);
+            } else {
+                values[cell] = value(pair & 0xF);
+                pair = -1;
+            }
+        }
+    }
+
+    private int value(final int nibble) throws IOException {
+        if (nibble > 9) {
+            throw new IOException("Corrupt value " + nibble + " in board " + nextBoard);
+        }
+        return nibble;
+    }
+
+    //Maps the region starting at the offset, boards never span two regions:
+    private void map(final long offset) throws IOException {
+        regionStart = offset;
+        region = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(REGION_SIZE, dataEnd - offset));
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+}
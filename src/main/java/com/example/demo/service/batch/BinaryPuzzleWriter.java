@@ -0,0 +1,141 @@
+package com.example.demo.service.batch;
+
+import com.example.demo.model.Position;
+import com.example.demo.model.SudokuBoard;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import static com.example.demo.service.batch.BinaryPuzzleFormat.*;
+
+/**
+ * Writes boards in the {@link BinaryPuzzleFormat}. The number of boards is only known at the end, so the
+ * header (and the index) is written on {@link #close()}; a file that was not closed has no valid header.
+ */
+public class BinaryPuzzleWriter implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final boolean sparse;
+    private final boolean indexed;
+    private final int[] cells = new int[CELLS];
+    private long[] index = new long[16];
+    private long count;
+    //File offset of the start of the buffer:
+    private long position = HEADER_SIZE;
+
+    public BinaryPuzzleWriter(Path path, boolean sparse, boolean indexed) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        this.sparse = sparse;
+        //Packed boards are found by offset, an index would add nothing:
+        this.indexed = indexed && sparse;
+        channel.position(HEADER_SIZE);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void write(final SudokuBoard board) throws IOException {
+        for (int cell = 0; cell < CELLS; cell++) {
+            cells[cell] = board.getValue(Position.ofIndex(cell)).map(value -> value.ordinal() + 1).orElse(0);
+        }
+        write(cells);
+    }
+
+    /**
+     * @param values per cell index the value ordinal + 1, or 0 for an empty cell
+     */
+    public void write(final int[] values) throws IOException {
+        if (buffer.remaining() < MAX_RECORD_SIZE) {
+            flush();
+        }
+        if (indexed && count % INDEX_STRIDE == 0) {
+            final int entry = (int) (count / INDEX_STRIDE);
+            if (entry == index.length) {
+                index = Arrays.copyOf(index, entry * 2);
+            }
+            index[entry] = position + buffer.position();
+        }
+        if (sparse) {
+            writeSparse(values);
+        } else {
+            writePacked(values);
+        }
+        count++;
+    }
+
+    private void writePacked(final int[] values) {
+        for (int cell = 0; cell < CELLS; cell += 2) {
+            final int low = cell + 1 < CELLS ? values[cell + 1] : 0;
+            buffer.put((byte) (values[cell] << 4 | low));
+        }
+    }
+
+    private void writeSparse(final int[] values) {
+        final int map = buffer.position();
+        for (int i = 0; i < MAP_SIZE; i++) {
+            buffer.put((byte) 0);
+        }
+        int pending = -1;
+        for (int cell = 0; cell < CELLS; cell++) {
+            final int value = values[cell];
+            if (value != 0) {
+                buffer.put(map + cell / 8, (byte) (buffer.get(map + cell / 8) | 1 << (cell % 8)));
+                if (pending < 0) {
+                    pending = value;
+                } else {
+                    buffer.put((byte) (pending << 4 | value));
+                    pending = -1;
+                }
+            }
+        }
+        if (pending >= 0) {
+            buffer.put((byte) (pending << 4));
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+            long indexOffset = 0;
+            if (indexed) {
+                indexOffset = position;
+                final int entries = (int) ((count + INDEX_STRIDE - 1) / INDEX_STRIDE);
+                for (int entry = 0; entry < entries; entry++) {
+                    if (buffer.remaining() < Long.BYTES) {
+                        flush();
+                    }
+                    buffer.putLong(index[entry]);
+                }
+                flush();
+            }
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            new Header(sparse ? SPARSE : PACKED, indexed ? INDEXED : 0, count, indexOffset, INDEX_STRIDE)
+                    .write(header);
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+        } finally {
+            channel.close();
+        }
+    }
+
+}
@@ -0,0 +1,31 @@
+package com.example.demo.service.batch;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class LinePuzzleReader implements PuzzleReader {
+
+    private final BufferedReader reader;
+
+    public LinePuzzleReader(Path path) throws IOException {
+        this.reader = Files.newBufferedReader(path, StandardCharsets.US_ASCII);
+    }
+
+    @Override
+    public String next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+        } while (line != null && line.isBlank());
+        return line == null ? null : line.trim();
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+}
@@ -0,0 +1,205 @@
+package com.example.demo.service.batch;
+
+import com.example.demo.model.Position;
+
+import java.util.Arrays;
+
+/**
+ * Propagates naked and hidden singles on many classic puzzles at once. The candidate masks of all puzzles are
+ * kept cell by cell, one lane per puzzle ({@code candidates[cell * lanes + lane]}), so every step of the rules
+ * is a loop over the lanes of a cell: contiguous, free of branches and of any puzzle depending on another,
+ * which the JIT turns into vector instructions. Every puzzle goes through every pass until none of them
+ * changes any more; puzzles still open after that are left to a search.
+ * <p>
+ * Not thread safe: a worker fills the lanes, propagates and reads the results back before the next batch.
+ */
+public class LockstepPropagator {
+
+    private static final int CELLS = Position.CELLS;
+    private static final int ALL_VALUES = (1 << Position.SIZE) - 1;
+    private static final int[][] UNITS = Position.UNITS;
+
+    private final int lanes;
+    private final int[] candidates;
+    //Per lane: the bits changed in the current pass, and -1 once a contradiction was found:
+    private final int[] changed;
+    private final int[] contradiction;
+    //Per lane scratch space for the unit being worked on:
+    private final int[] once;
+    private final int[] twice;
+    private final int[] placed;
+    private int count;
+
+    public LockstepPropagator(int lanes) {
+        if (lanes <= 0) {
+            throw new IllegalArgumentException("Expected at least one lane but got " + lanes);
+        }
+        this.lanes = lanes;
+        this.candidates = new int[CELLS * lanes];
+        this.changed = new int[lanes];
+        this.contradiction = new int[lanes];
+        this.once = new int[lanes];
+        this.twice = new int[lanes];
+        this.placed = new int[lanes];
+    }
+
+    public int getLanes() {
+        return lanes;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public boolean isFull() {
+        return count == lanes;
+    }
+
+    /**
+     * Loads a puzzle into the next lane and returns the lane.
+     *
+     * @param values per cell index the value 1-9, or 0 for an empty cell
+     */
+    public int add(final int[] values) {
+        if (isFull()) {
+            throw new IllegalStateException("All " + lanes + " lanes are in use");
+        }
+        final int lane = count++;
+        for (int cell = 0; cell < CELLS; cell++) {
+            candidates[cell * lanes + lane] = values[cell] == 0 ? ALL_VALUES : 1 << (values[cell] - 1);
+        }
+        contradiction[lane] = 0;
+        return lane;
+    }
+
+    /**
+     * Empties every lane for the next batch.
+     */
+    public void clear() {
+        count = 0;
+    }
+
+    /**
+     * Applies naked and hidden singles to every loaded puzzle until none of them changes.
+     */
+    public void propagate() {
+        //Unused lanes hold whatever the last batch left, they are propagated along but never read:
+        boolean anyChanged = true;
+        while (anyChanged) {
+            Arrays.fill(changed, 0);
+            for (final int[] unit : UNITS) {
+                nakedSingles(unit);
+                hiddenSingles(unit);
+            }
+            anyChanged = false;
+            for (int lane = 0; lane < count; lane++) {
+                //A contradictory lane may go on changing, but it is settled:
+                if (changed[lane] != 0 && contradiction[lane] == 0) {
+                    anyChanged = true;
+                    break;
+                }
+            }
+        }
+    }
+
+    //Removes the value of every solved cell from the rest of the unit:
+    private void nakedSingles(final int[] unit) {
+        Arrays.fill(once, 0);
+        Arrays.fill(twice, 0);
+        for (final int cell : unit) {
+            final int base = cell * lanes;
+            for (int lane = 0; lane < lanes; lane++) {
+                final int mask = candidates[base + lane];
+                final int value = mask & single(mask);
+                //Two cells of the unit solved to the same value:
+                twice[lane] |= once[lane] & value;
+                once[lane] |= value;
+            }
+        }
+        for (final int cell : unit) {
+            final int base = cell * lanes;
+            for (int lane = 0; lane < lanes; lane++) {
+                final int mask = candidates[base + lane];
+                final int remaining = mask & ~(once[lane] & ~(mask & single(mask)));
+                candidates[base + lane] = remaining;
+                changed[lane] |= mask ^ remaining;
+                contradiction[lane] |= isZero(remaining) | nonZero(twice[lane]);
+            }
+        }
+    }
+
+    //Solves the cell holding the only candidate for a value in the unit:
+    private void hiddenSingles(final int[] unit) {
+        Arrays.fill(once, 0);
+        Arrays.fill(twice, 0);
+        for (final int cell : unit) {
+            final int base = cell * lanes;
+            for (int lane = 0; lane < lanes; lane++) {
+                final int mask = candidates[base + lane];
+                twice[lane] |= once[lane] & mask;
+                once[lane] |= mask;
+            }
+        }
+        for (int lane = 0; lane < lanes; lane++) {
+            //A value with no place left in the unit:
+            contradiction[lane] |= nonZero(once[lane] ^ ALL_VALUES);
+            placed[lane] = once[lane] & ~twice[lane];
+        }
+        for (final int cell : unit) {
+            final int base = cell * lanes;
+            for (int lane = 0; lane < lanes; lane++) {
+                final int mask = candidates[base + lane];
+                final int hidden = mask & placed[lane];
+                final int found = nonZero(hidden);
+                final int remaining = (hidden & found) | (mask & ~found);
+                candidates[base + lane] = remaining;
+                changed[lane] |= mask ^ remaining;
+            }
+        }
+    }
+
+    //-1 when the mask has at most one bit, 0 otherwise:
+    private static int single(final int mask) {
+        return isZero(mask & (mask - 1));
+    }
+
+    //-1 when the (non negative) mask is not 0, 0 otherwise:
+    private static int nonZero(final int mask) {
+        return (mask | -mask) >> 31;
+    }
+
+    private static int isZero(final int mask) {
+        return ~nonZero(mask);
+    }
+
+    public boolean hasContradiction(final int lane) {
+        return contradiction[lane] != 0;
+    }
+
+    /**
+     * Whether propagation solved every cell of the puzzle in the lane, without contradiction.
+     */
+    public boolean isSolved(final int lane) {
+        if (hasContradiction(lane)) {
+            return false;
+        }
+        for (int cell = 0; cell < CELLS; cell++) {
+            final int mask = candidates[cell * lanes + lane];
+            if ((mask & (mask - 1)) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes the values of the puzzle in the lane, 0 for a cell that is not solved.
+     */
+    public void values(final int lane, final int[] values) {
+        for (int cell = 0; cell < CELLS; cell++) {
+            final int mask = candidates[cell * lanes + lane];
+            values[cell] = Integer.bitCount(mask) == 1 ? Integer.numberOfTrailingZeros(mask) + 1 : 0;
+        }
+    }
+
+}
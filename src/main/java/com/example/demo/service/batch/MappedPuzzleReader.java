@@ -0,0 +1,65 @@
+package com.example.demo.service.batch;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads the lines of a large file through memory mapped regions, so the file is paged in by the OS
+ * instead of being copied through a stream buffer.
+ */
+public class MappedPuzzleReader implements PuzzleReader {
+
+    private static final long REGION_SIZE = 1L << 28;
+
+    private final FileChannel channel;
+    private final long size;
+    private final StringBuilder line = new StringBuilder(128);
+    private MappedByteBuffer region;
+    private long regionEnd;
+
+    public MappedPuzzleReader(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.size = channel.size();
+    }
+
+    @Override
+    public String next() throws IOException {
+        while (true) {
+            if (region == null || ! region.hasRemaining()) {
+                if (regionEnd >= size) {
+                    //The last line may not end with a new line:
+                    return line.length() == 0 ? null : takeLine();
+                }
+                final long length = Math.min(REGION_SIZE, size - regionEnd);
+                region = channel.map(FileChannel.MapMode.READ_ONLY, regionEnd, length);
+                regionEnd += length;
+            }
+            //Lines can span two regions, the builder carries the start over:
+            while (region.hasRemaining()) {
+                final char c = (char) region.get();
+                if (c == '\n') {
+                    if (line.length() > 0) {
+                        return takeLine();
+                    }
+                } else if (! Character.isWhitespace(c)) {
+                    line.append(c);
+                }
+            }
+        }
+    }
+
+    private String takeLine() {
+        final String result = line.toString();
+        line.setLength(0);
+        return result;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+}
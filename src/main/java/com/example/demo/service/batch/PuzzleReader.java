@@ -0,0 +1,25 @@
+package com.example.demo.service.batch;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public interface PuzzleReader extends Closeable {
+
+    //Files from this size on are read through memory mapped regions:
+    long MAPPED_THRESHOLD = 16L << 20;
+
+    /**
+     * Returns the next non blank line, or null at the end of the input.
+     */
+    String next() throws IOException;
+
+    static PuzzleReader open(final Path input) throws IOException {
+        if (Files.size(input) >= MAPPED_THRESHOLD) {
+            return new MappedPuzzleReader(input);
+        }
+        return new LinePuzzleReader(input);
+    }
+
+}
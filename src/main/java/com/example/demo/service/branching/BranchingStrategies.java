@@ -0,0 +1,48 @@
+package com.example.demo.service.branching;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The branching strategy beans by name, for {@code solver.branching} and the shell.
+ */
+@Component
+public class BranchingStrategies {
+
+    public static final String DEFAULT = MinimumRemainingValues.NAME;
+
+    private final Map<String, BranchingStrategy> strategies;
+
+    public BranchingStrategies(List<BranchingStrategy> strategies) {
+        this.strategies = strategies.stream()
+                .collect(Collectors.toMap(BranchingStrategy::getName, Function.identity()));
+    }
+
+    /**
+     * The strategies of this package, for solvers built without Spring.
+     */
+    public static BranchingStrategies standard() {
+        return new BranchingStrategies(Arrays.asList(
+                new MinimumRemainingValues(), new MrvDegree(), new LeastConstrainingValue(), new RandomRestarts()));
+    }
+
+    public BranchingStrategy get(String name) {
+        final BranchingStrategy strategy = strategies.get(name);
+        if (strategy == null) {
+            throw new IllegalArgumentException("Unknown branching strategy '" + name + "', expected one of "
+                    + strategies.keySet());
+        }
+        return strategy;
+    }
+
+    public Collection<BranchingStrategy> all() {
+        return strategies.values();
+    }
+
+}
@@ -0,0 +1,39 @@
+package com.example.demo.service.branching;
+
+import com.example.demo.model.CandidateGrid;
+
+/**
+ * Decides where the backtracking search branches once propagation is stuck: the cell to guess, the order
+ * to try its candidates in and, optionally, when to give up on the current tree and start over.
+ * Strategies are called from every search thread, so they keep no state of their own.
+ */
+public interface BranchingStrategy {
+
+    String getName();
+
+    /**
+     * The unset cell to branch on; the grid has at least one unset cell and no contradiction.
+     */
+    int selectCell(CandidateGrid grid);
+
+    /**
+     * Writes the candidates of the cell into the array in the order to try them and returns their number.
+     * The array holds at least one slot per value of the grid. Defaults to ascending value order.
+     */
+    default int orderValues(CandidateGrid grid, int cell, int[] order) {
+        int count = 0;
+        for (long candidates = grid.getCandidates(cell); candidates != 0; candidates &= candidates - 1) {
+            order[count++] = Long.numberOfTrailingZeros(candidates);
+        }
+        return count;
+    }
+
+    /**
+     * Nodes the search may expand on its given restart (counting from 0) before it starts over, which it only
+     * does as long as it has not found a solution. Defaults to never restarting.
+     */
+    default long getRestartNodes(int restart) {
+        return Long.MAX_VALUE;
+    }
+
+}
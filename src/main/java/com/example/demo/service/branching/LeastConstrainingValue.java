@@ -0,0 +1,52 @@
+package com.example.demo.service.branching;
+
+import com.example.demo.model.CandidateGrid;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+
+/**
+ * Branches on the cell with the fewest candidates and tries first the values that remove the fewest
+ * candidates from its unset peers, leaving the most room for the rest of the grid.
+ */
+@Component
+public class LeastConstrainingValue implements BranchingStrategy {
+
+    public static final String NAME = "lcv";
+
+    //Values are below 64, so the number of peers losing a value goes above them in one sortable key:
+    private static final int VALUE_BITS = 6;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public int selectCell(CandidateGrid grid) {
+        return grid.getFewestCandidatesCell();
+    }
+
+    @Override
+    public int orderValues(CandidateGrid grid, int cell, int[] order) {
+        final int[] peers = grid.getGeometry().peersOf(cell);
+        int count = 0;
+        for (long candidates = grid.getCandidates(cell); candidates != 0; candidates &= candidates - 1) {
+            final int value = Long.numberOfTrailingZeros(candidates);
+            final long bit = 1L << value;
+            int constrained = 0;
+            for (final int peer : peers) {
+                if (!grid.isSet(peer) && (grid.getCandidates(peer) & bit) != 0) {
+                    constrained++;
+                }
+            }
+            order[count++] = constrained << VALUE_BITS | value;
+        }
+        Arrays.sort(order, 0, count);
+        for (int i = 0; i < count; i++) {
+            order[i] &= (1 << VALUE_BITS) - 1;
+        }
+        return count;
+    }
+
+}
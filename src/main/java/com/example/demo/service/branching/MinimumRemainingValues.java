@@ -0,0 +1,24 @@
+package com.example.demo.service.branching;
+
+import com.example.demo.model.CandidateGrid;
+import org.springframework.stereotype.Component;
+
+/**
+ * Branches on the cell with the fewest candidates, the first one on ties, trying its values in ascending order.
+ */
+@Component
+public class MinimumRemainingValues implements BranchingStrategy {
+
+    public static final String NAME = "mrv";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public int selectCell(CandidateGrid grid) {
+        return grid.getFewestCandidatesCell();
+    }
+
+}
@@ -0,0 +1,53 @@
+package com.example.demo.service.branching;
+
+import com.example.demo.model.CandidateGrid;
+import org.springframework.stereotype.Component;
+
+/**
+ * Minimum remaining values with ties broken by degree: of the cells with the fewest candidates, the one
+ * with the most unset peers, as its value constrains the most of the rest of the grid.
+ */
+@Component
+public class MrvDegree implements BranchingStrategy {
+
+    public static final String NAME = "mrv-degree";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public int selectCell(CandidateGrid grid) {
+        int best = -1;
+        int bestCount = Integer.MAX_VALUE;
+        int bestDegree = -1;
+        final int cells = grid.getGeometry().getCells();
+        for (int cell = 0; cell < cells; cell++) {
+            if (grid.isSet(cell)) {
+                continue;
+            }
+            final int count = Long.bitCount(grid.getCandidates(cell));
+            if (count <= bestCount) {
+                final int degree = degree(grid, cell);
+                if (count < bestCount || degree > bestDegree) {
+                    best = cell;
+                    bestCount = count;
+                    bestDegree = degree;
+                }
+            }
+        }
+        return best;
+    }
+
+    private static int degree(final CandidateGrid grid, final int cell) {
+        int degree = 0;
+        for (final int peer : grid.getGeometry().peersOf(cell)) {
+            if (!grid.isSet(peer)) {
+                degree++;
+            }
+        }
+        return degree;
+    }
+
+}
@@ -0,0 +1,70 @@
+package com.example.demo.service.branching;
+
+import com.example.demo.model.CandidateGrid;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Minimum remaining values with random tie breaks and a random value order, starting over with a fresh
+ * random tree whenever a node budget runs out before a solution turns up. The budget grows with every
+ * restart, so the search stays complete; it pays off on puzzles where an early wrong guess leads into a
+ * huge subtree.
+ */
+@Component
+public class RandomRestarts implements BranchingStrategy {
+
+    public static final String NAME = "random-restarts";
+
+    private static final long FIRST_RESTART_NODES = 256;
+    private static final double GROWTH = 1.5;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public int selectCell(CandidateGrid grid) {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        int best = -1;
+        int bestCount = Integer.MAX_VALUE;
+        int ties = 0;
+        final int cells = grid.getGeometry().getCells();
+        for (int cell = 0; cell < cells; cell++) {
+            if (grid.isSet(cell)) {
+                continue;
+            }
+            final int count = Long.bitCount(grid.getCandidates(cell));
+            if (count < bestCount) {
+                best = cell;
+                bestCount = count;
+                ties = 1;
+            } else if (count == bestCount && random.nextInt(++ties) == 0) {
+                //Every tied cell ends up chosen with the same chance:
+                best = cell;
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public int orderValues(CandidateGrid grid, int cell, int[] order) {
+        final int count = BranchingStrategy.super.orderValues(grid, cell, order);
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = count - 1; i > 0; i--) {
+            final int j = random.nextInt(i + 1);
+            final int value = order[i];
+            order[i] = order[j];
+            order[j] = value;
+        }
+        return count;
+    }
+
+    @Override
+    public long getRestartNodes(int restart) {
+        final double nodes = FIRST_RESTART_NODES * Math.pow(GROWTH, restart);
+        return nodes >= Long.MAX_VALUE ? Long.MAX_VALUE : (long) nodes;
+    }
+
+}
@@ -0,0 +1,174 @@
+package com.example.demo.service.cache;
+
+import com.example.demo.config.SolverProperties;
+import com.example.demo.model.CanonicalForm;
+import com.example.demo.model.SudokuBoard;
+import com.example.demo.service.CancellationToken;
+import com.example.demo.service.SearchOutcome;
+import com.example.demo.service.SearchStatus;
+import com.example.demo.service.SolveResult;
+import com.example.demo.service.SolveStats;
+import com.example.demo.service.SolverEngine;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Solutions of recently solved boards, keyed by their {@link CanonicalForm} so every symmetric variant of a
+ * board hits the same entry. Solutions are kept in the canonical orientation and mapped back onto the board
+ * asked for. The least recently used entry is evicted once the cache holds {@code solver.cache-size} boards.
+ */
+@Component
+public class SolutionCache {
+
+    //Boards with more solutions than this are solved every time:
+    static final int MAX_SOLUTIONS = 16;
+
+    private final int capacity;
+    private final Map<String, Entry> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public SolutionCache(SolverProperties solverProperties) {
+        this.capacity = solverProperties.getCacheSize();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > capacity) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * All solutions of the board, from the cache or else from the engine. Cached results report no expanded nodes.
+     */
+    public SolveResult solve(final SolverEngine engine, final SudokuBoard board) {
+        return solve(engine, board, CancellationToken.NONE);
+    }
+
+    /**
+     * Like {@link #solve(SolverEngine, SudokuBoard)}, but the search stops with the token. Only the results
+     * of exhausted searches are cached.
+     */
+    public SolveResult solve(final SolverEngine engine, final SudokuBoard board, final CancellationToken token) {
+        if (capacity == 0) {
+            return engine.solve(board, token);
+        }
+        final CanonicalForm form = CanonicalForm.of(board);
+        final Entry entry = get(form);
+        if (entry != null && entry.complete) {
+            hits.increment();
+            final Set<SudokuBoard> solutions = new HashSet<>();
+            for (final String solution : entry.solutions) {
+                solutions.add(form.fromCanonical(board, solution));
+            }
+            return new SolveResult(solutions, SolveStats.NONE, SearchStatus.EXHAUSTED);
+        }
+        misses.increment();
+        final SolveResult result = engine.solve(board, token);
+        if (result.getStatus() == SearchStatus.EXHAUSTED && result.getSolutions().size() <= MAX_SOLUTIONS) {
+            final List<String> solutions = new ArrayList<>(result.getSolutions().size());
+            for (final SudokuBoard solution : result.getSolutions()) {
+                solutions.add(form.toCanonical(solution));
+            }
+            put(form, new Entry(solutions, true));
+        }
+        return result;
+    }
+
+    /**
+     * The first solution of the board, from the cache or else from the engine.
+     */
+    public Optional<SudokuBoard> findFirst(final SolverEngine engine, final SudokuBoard board) {
+        return findFirst(engine, board, CancellationToken.NONE).getSolutions().stream().findFirst();
+    }
+
+    /**
+     * The first solution of the board, if there is one, as a result that tells an unsolvable board
+     * ({@link SearchStatus#EXHAUSTED}) from a search stopped by the token. Cached results report no expanded nodes.
+     */
+    public SolveResult findFirst(final SolverEngine engine, final SudokuBoard board, final CancellationToken token) {
+        if (capacity == 0) {
+            return search(engine, board, token);
+        }
+        final CanonicalForm form = CanonicalForm.of(board);
+        final Entry entry = get(form);
+        if (entry != null && (entry.complete || !entry.solutions.isEmpty())) {
+            hits.increment();
+            final Set<SudokuBoard> solutions = new HashSet<>();
+            entry.solutions.stream().findFirst().ifPresent(solution -> solutions.add(form.fromCanonical(board, solution)));
+            return new SolveResult(solutions, SolveStats.NONE,
+                    solutions.isEmpty() ? SearchStatus.EXHAUSTED : SearchStatus.LIMIT_REACHED);
+        }
+        misses.increment();
+        final SolveResult result = search(engine, board, token);
+        final Optional<SudokuBoard> solution = result.getSolutions().stream().findFirst();
+        if (solution.isPresent()) {
+            put(form, new Entry(Collections.singletonList(form.toCanonical(solution.get())), false));
+        } else if (result.getStatus() == SearchStatus.EXHAUSTED) {
+            put(form, new Entry(Collections.emptyList(), true));
+        }
+        return result;
+    }
+
+    private static SolveResult search(final SolverEngine engine, final SudokuBoard board,
+                                      final CancellationToken token) {
+        final AtomicReference<SudokuBoard> solution = new AtomicReference<>();
+        final SearchOutcome outcome = engine.search(board, s -> {
+            solution.set(s);
+            return false;
+        }, token);
+        final Set<SudokuBoard> solutions = solution.get() == null
+                ? Collections.emptySet() : Collections.singleton(solution.get());
+        return new SolveResult(solutions, SolveStats.NONE, outcome.getStatus());
+    }
+
+    private Entry get(final CanonicalForm form) {
+        synchronized (entries) {
+            return entries.get(form.getKey());
+        }
+    }
+
+    private void put(final CanonicalForm form, final Entry entry) {
+        synchronized (entries) {
+            final Entry existing = entries.get(form.getKey());
+            if (existing == null || !existing.complete) {
+                entries.put(form.getKey(), entry);
+            }
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public CacheStats getStats() {
+        synchronized (entries) {
+            return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), entries.size(), capacity);
+        }
+    }
+
+    private static class Entry {
+
+        //In the canonical orientation and labels:
+        private final List<String> solutions;
+        //False when only the first solution was searched for:
+        private final boolean complete;
+
+        private Entry(List<String> solutions, boolean complete) {
+            this.solutions = solutions;
+            this.complete = complete;
+        }
+
+    }
+
+}
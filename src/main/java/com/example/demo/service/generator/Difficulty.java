@@ -0,0 +1,15 @@
+package com.example.demo.service.generator;
+
+/**
+ * How much a puzzle asks of the solver, by the propagation rules it takes to solve it.
+ */
+public enum Difficulty {
+
+    //Naked and hidden singles are enough:
+    EASY,
+    //Also needs locked candidates or naked subsets, but no guessing:
+    MEDIUM,
+    //Propagation alone gets stuck, the solver has to search:
+    HARD
+
+}
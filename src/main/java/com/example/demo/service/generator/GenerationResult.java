@@ -0,0 +1,17 @@
+package com.example.demo.service.generator;
+
+import lombok.Value;
+
+@Value
+public class GenerationResult {
+
+    long puzzles;
+    //Puzzles given up on after generator.max-attempts filled grids:
+    long failed;
+    long elapsedNanos;
+
+    public double getPuzzlesPerSecond() {
+        return elapsedNanos == 0 ? 0 : puzzles * 1_000_000_000d / elapsedNanos;
+    }
+
+}
@@ -0,0 +1,200 @@
+package com.example.demo.service.generator;
+
+import com.example.demo.config.GeneratorProperties;
+import com.example.demo.model.CandidateGrid;
+import com.example.demo.model.Position;
+import com.example.demo.model.PuzzleFormat;
+import com.example.demo.model.SudokuBoard;
+import com.example.demo.service.DancingLinksSolver;
+import com.example.demo.service.propagation.HiddenSingles;
+import com.example.demo.service.propagation.NakedSingles;
+import com.example.demo.service.propagation.Propagator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates puzzles with a unique solution: fills a random grid, then takes clues away in random order
+ * (in mirrored pairs when {@code generator.symmetric} is set), putting back every clue whose removal leaves
+ * more than one solution or makes the puzzle harder than asked for. A puzzle that ends up easier than asked
+ * for is thrown away and a new grid is tried.
+ */
+@Component
+@Slf4j
+public class PuzzleGenerator {
+
+    private static final int CELLS = Position.CELLS;
+
+    //Generated puzzles waiting for the writer:
+    private static final int QUEUE_CAPACITY = 1024;
+
+    private final Propagator propagator;
+    private final Propagator singles;
+    private final DancingLinksSolver uniquenessSolver;
+    private final GeneratorProperties generatorProperties;
+
+    public PuzzleGenerator(Propagator propagator, DancingLinksSolver uniquenessSolver,
+                           GeneratorProperties generatorProperties) {
+        this.propagator = propagator;
+        this.singles = Propagator.of(new NakedSingles(), new HiddenSingles());
+        this.uniquenessSolver = uniquenessSolver;
+        this.generatorProperties = generatorProperties;
+    }
+
+    public Difficulty rate(final SudokuBoard board) {
+        final CandidateGrid easy = CandidateGrid.of(board);
+        if (singles.propagate(easy) && easy.isSolved()) {
+            return Difficulty.EASY;
+        }
+        final CandidateGrid medium = CandidateGrid.of(board);
+        if (propagator.propagate(medium) && medium.isSolved()) {
+            return Difficulty.MEDIUM;
+        }
+        return Difficulty.HARD;
+    }
+
+    /**
+     * Empty when no puzzle of the difficulty turned up within {@code generator.max-attempts} filled grids.
+     */
+    public Optional<SudokuBoard> generate(final Difficulty difficulty, final Random random) {
+        for (int attempt = 0; attempt < generatorProperties.getMaxAttempts(); attempt++) {
+            final SudokuBoard puzzle = removeClues(fill(CandidateGrid.empty(), random), difficulty, random);
+            if (rate(puzzle) == difficulty) {
+                return Optional.of(puzzle);
+            }
+        }
+        return Optional.empty();
+    }
+
+    //A random solved grid: the search of the solver, but trying the candidates in random order
+    private CandidateGrid fill(final CandidateGrid grid, final Random random) {
+        if (!propagator.propagate(grid)) {
+            return null;
+        }
+        if (grid.isSolved()) {
+            return grid;
+        }
+        final int cell = grid.getFewestCandidatesCell();
+        final int[] values = new int[Long.bitCount(grid.getCandidates(cell))];
+        long candidates = grid.getCandidates(cell);
+        for (int i = 0; candidates != 0; i++) {
+            values[i] = Long.numberOfTrailingZeros(candidates);
+            candidates &= candidates - 1;
+        }
+        shuffle(values, random);
+        for (final int value : values) {
+            final CandidateGrid child = grid.copy();
+            if (child.assign(cell, value)) {
+                final CandidateGrid solved = fill(child, random);
+                if (solved != null) {
+                    return solved;
+                }
+            }
+        }
+        return null;
+    }
+
+    private SudokuBoard removeClues(final CandidateGrid solution, final Difficulty difficulty, final Random random) {
+        final char[] line = PuzzleFormat.format(solution.applyTo(SudokuBoard.emptyBitboard())).toCharArray();
+        final int[] cells = new int[CELLS];
+        Arrays.setAll(cells, cell -> cell);
+        shuffle(cells, random);
+        for (final int cell : cells) {
+            final int mirror = generatorProperties.isSymmetric() ? CELLS - 1 - cell : cell;
+            if (PuzzleFormat.isEmptyCell(line[cell])) {
+                continue;
+            }
+            final char clue = line[cell];
+            final char mirrorClue = line[mirror];
+            line[cell] = '.';
+            line[mirror] = '.';
+            final SudokuBoard board = PuzzleFormat.parse(SudokuBoard.emptyBitboard(), new String(line));
+            if (!uniquenessSolver.isUnique(board) || rate(board).compareTo(difficulty) > 0) {
+                line[cell] = clue;
+                line[mirror] = mirrorClue;
+            }
+        }
+        return PuzzleFormat.parse(SudokuBoard.emptyBitboard(), new String(line));
+    }
+
+    private static void shuffle(final int[] values, final Random random) {
+        for (int i = values.length - 1; i > 0; i--) {
+            final int j = random.nextInt(i + 1);
+            final int value = values[i];
+            values[i] = values[j];
+            values[j] = value;
+        }
+    }
+
+    /**
+     * Generates the puzzles on {@code generator.workers} threads, at most {@code generator.rate} per second,
+     * and writes them to the file in the single line format as they come in.
+     */
+    public GenerationResult generateFile(final Path output, final long count, final Difficulty difficulty)
+            throws IOException, InterruptedException {
+        final long start = System.nanoTime();
+        final ExecutorService workers = Executors.newFixedThreadPool(generatorProperties.getWorkers());
+        final BlockingQueue<Optional<String>> generated = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        final AtomicLong remaining = new AtomicLong(count);
+        final AtomicLong nextSlot = new AtomicLong(start);
+        for (int worker = 0; worker < generatorProperties.getWorkers(); worker++) {
+            workers.execute(() -> {
+                try {
+                    while (remaining.getAndDecrement() > 0) {
+                        pace(nextSlot);
+                        Optional<String> puzzle;
+                        try {
+                            puzzle = generate(difficulty, ThreadLocalRandom.current()).map(PuzzleFormat::format);
+                        } catch (RuntimeException e) {
+                            log.error("Generating a puzzle failed", e);
+                            puzzle = Optional.empty();
+                        }
+                        generated.put(puzzle);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+
+        long failed = 0;
+        try (BufferedWriter writer = Files.newBufferedWriter(output, StandardCharsets.US_ASCII)) {
+            for (long i = 0; i < count; i++) {
+                final Optional<String> puzzle = generated.take();
+                if (puzzle.isPresent()) {
+                    writer.write(puzzle.get());
+                    writer.newLine();
+                } else {
+                    failed++;
+                }
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+        return new GenerationResult(count - failed, failed, System.nanoTime() - start);
+    }
+
+    //Waits for the next free slot, spacing the puzzles evenly at the configured rate:
+    private void pace(final AtomicLong nextSlot) throws InterruptedException {
+        if (generatorProperties.getRate() <= 0) {
+            return;
+        }
+        final long interval = (long) (1_000_000_000d / generatorProperties.getRate());
+        final long slot = nextSlot.getAndUpdate(previous -> Math.max(previous, System.nanoTime()) + interval);
+        final long wait = slot - System.nanoTime();
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+
+}
@@ -0,0 +1,140 @@
+package com.example.demo.service.metrics;
+
+import com.example.demo.config.SolverProperties;
+import com.example.demo.service.SolveStats;
+import com.example.demo.service.SolveStatsListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Publishes the statistics of every search as Micrometer meters tagged with the engine, and exposes the
+ * totals and the last search over JMX. Does nothing unless {@code solver.metrics} is set.
+ */
+@Component
+@ManagedResource(objectName = "com.example.demo:type=SolverMetrics", description = "Statistics of the solver searches")
+public class SolverMetrics implements SolveStatsListener {
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final Map<String, Meters> meters = new ConcurrentHashMap<>();
+    private final LongAdder searches = new LongAdder();
+    private final LongAdder nodes = new LongAdder();
+    private final LongAdder backtracks = new LongAdder();
+    private final AtomicReference<SolveStats> last = new AtomicReference<>(SolveStats.NONE);
+
+    public SolverMetrics(MeterRegistry meterRegistry, SolverProperties solverProperties) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = solverProperties.isMetrics();
+    }
+
+    @Override
+    public void onStats(final String engine, final SolveStats stats) {
+        if (!enabled) {
+            return;
+        }
+        meters.computeIfAbsent(engine, Meters::new).record(stats);
+        searches.increment();
+        nodes.add(stats.getNodes());
+        backtracks.add(stats.getBacktracks());
+        last.set(stats);
+    }
+
+    @ManagedAttribute(description = "Searches run since start up")
+    public long getSearches() {
+        return searches.sum();
+    }
+
+    @ManagedAttribute(description = "Nodes expanded by all searches")
+    public long getNodes() {
+        return nodes.sum();
+    }
+
+    @ManagedAttribute(description = "Contradictory nodes given up by all searches")
+    public long getBacktracks() {
+        return backtracks.sum();
+    }
+
+    @ManagedAttribute(description = "Nodes expanded by the last search")
+    public long getLastNodes() {
+        return last.get().getNodes();
+    }
+
+    @ManagedAttribute(description = "Deepest level reached by the last search")
+    public int getLastMaxDepth() {
+        return last.get().getMaxDepth();
+    }
+
+    @ManagedAttribute(description = "Candidates eliminated by the last search")
+    public long getLastEliminations() {
+        return last.get().getEliminations();
+    }
+
+    @ManagedAttribute(description = "Milliseconds taken by the last search")
+    public double getLastElapsedMillis() {
+        return last.get().getElapsedNanos() / 1_000_000d;
+    }
+
+    private class Meters {
+
+        private final Timer elapsed;
+        private final Timer propagation;
+        private final DistributionSummary nodes;
+        private final DistributionSummary depth;
+        private final Counter backtracks;
+        private final Counter eliminations;
+        private final Counter forks;
+
+        private Meters(String engine) {
+            elapsed = Timer.builder("sudoku.search")
+                    .description("Time taken by a search")
+                    .tag("engine", engine)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+            propagation = Timer.builder("sudoku.search.propagation")
+                    .description("Time spent propagating constraints, summed over the workers")
+                    .tag("engine", engine)
+                    .register(meterRegistry);
+            nodes = DistributionSummary.builder("sudoku.search.nodes")
+                    .description("Nodes expanded by a search")
+                    .tag("engine", engine)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+            depth = DistributionSummary.builder("sudoku.search.depth")
+                    .description("Deepest level reached by a search")
+                    .tag("engine", engine)
+                    .register(meterRegistry);
+            backtracks = Counter.builder("sudoku.search.backtracks")
+                    .tag("engine", engine)
+                    .register(meterRegistry);
+            eliminations = Counter.builder("sudoku.search.eliminations")
+                    .tag("engine", engine)
+                    .register(meterRegistry);
+            forks = Counter.builder("sudoku.search.forks")
+                    .tag("engine", engine)
+                    .register(meterRegistry);
+        }
+
+        private void record(final SolveStats stats) {
+            elapsed.record(stats.getElapsedNanos(), TimeUnit.NANOSECONDS);
+            propagation.record(stats.getPropagationNanos(), TimeUnit.NANOSECONDS);
+            nodes.record(stats.getNodes());
+            depth.record(stats.getMaxDepth());
+            backtracks.increment(stats.getBacktracks());
+            eliminations.increment(stats.getEliminations());
+            forks.increment(stats.getForks());
+        }
+
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.example.demo.service.propagation;
+
+import com.example.demo.model.CandidateGrid;
+
+/**
+ * Killer cages: keeps only the candidates that are part of a value set still able to fill the cage, one
+ * holding the values placed in the cage and leaving a candidate for each of its other cells. A full cage
+ * that does not add up has no such set left, which makes this the rule that checks the sums, so the
+ * {@link Propagator} always applies it on a grid with cages.
+ */
+public class CageSums implements PropagationRule {
+
+    @Override
+    public String getName() {
+        return "cage-sums";
+    }
+
+    @Override
+    public boolean apply(CandidateGrid grid) {
+        boolean changed = false;
+        final int[][] cages = grid.getGeometry().getCages();
+        for (int cage = 0; cage < cages.length && !grid.hasContradiction(); cage++) {
+            long placed = 0;
+            long open = 0;
+            int unsolved = 0;
+            for (final int cell : cages[cage]) {
+                if (grid.isSet(cell)) {
+                    placed |= grid.getCandidates(cell);
+                } else {
+                    open |= grid.getCandidates(cell);
+                    unsolved++;
+                }
+            }
+            long allowed = 0;
+            boolean feasible = false;
+            for (final long combination : grid.getGeometry().getCageCombinations(cage)) {
+                final long rest = combination & ~placed;
+                if ((combination & placed) == placed && (rest & ~open) == 0 && fits(grid, cages[cage], rest)) {
+                    allowed |= rest;
+                    feasible = true;
+                }
+            }
+            if (!feasible) {
+                grid.markContradiction();
+                return true;
+            }
+            if (unsolved > 0) {
+                for (final int cell : cages[cage]) {
+                    if (!grid.isSet(cell)) {
+                        changed |= grid.eliminate(cell, ~allowed);
+                    }
+                }
+            }
+        }
+        return changed;
+    }
+
+    //Every open cell keeps a candidate among the values the set leaves to place:
+    private static boolean fits(CandidateGrid grid, int[] cells, long rest) {
+        for (final int cell : cells) {
+            if (!grid.isSet(cell) && (grid.getCandidates(cell) & rest) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,88 @@
+package com.example.demo.service.propagation;
+
+import com.example.demo.model.CandidateGrid;
+
+/**
+ * X-Wing and Swordfish: when a value is confined to the same n cols within n rows, one of those cells in
+ * every col must hold it, so it can be removed from the rest of those cols; likewise with rows and cols
+ * swapped. Not part of the standard propagator, the rating ladder uses it.
+ */
+public class Fish implements PropagationRule {
+
+    public static final Fish X_WING = new Fish(2, "x-wing");
+    public static final Fish SWORDFISH = new Fish(3, "swordfish");
+
+    private final int size;
+    private final String name;
+
+    private Fish(int size, String name) {
+        this.size = size;
+        this.name = name;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public boolean apply(CandidateGrid grid) {
+        boolean changed = false;
+        final int lineCount = grid.getGeometry().getSize();
+        //Per base line, the cross lines where the value is still open:
+        final long[] lines = new long[lineCount];
+        for (int value = 0; value < lineCount && !grid.hasContradiction(); value++) {
+            for (int rowsFirst = 0; rowsFirst < 2 && !grid.hasContradiction(); rowsFirst++) {
+                final boolean rows = rowsFirst == 0;
+                for (int line = 0; line < lineCount; line++) {
+                    long mask = 0;
+                    for (int cross = 0; cross < lineCount; cross++) {
+                        final int cell = cell(lineCount, rows, line, cross);
+                        if (!grid.isSet(cell) && (grid.getCandidates(cell) & (1L << value)) != 0) {
+                            mask |= 1L << cross;
+                        }
+                    }
+                    lines[line] = mask;
+                }
+                changed |= findFish(grid, lines, rows, value, 0, 0, 0, 0);
+            }
+        }
+        return changed;
+    }
+
+    //Members is a bit set over the base lines, union over the cross lines:
+    private boolean findFish(CandidateGrid grid, long[] lines, boolean rows, int value,
+                             int start, int depth, long members, long union) {
+        if (depth == size) {
+            if (Long.bitCount(union) != size) {
+                return false;
+            }
+            boolean changed = false;
+            for (int line = 0; line < lines.length; line++) {
+                if ((members & (1L << line)) == 0 && (lines[line] & union) != 0) {
+                    for (long cross = lines[line] & union; cross != 0; cross &= cross - 1) {
+                        changed |= grid.eliminate(cell(lines.length, rows, line, Long.numberOfTrailingZeros(cross)),
+                                1L << value);
+                    }
+                }
+            }
+            return changed;
+        }
+        boolean changed = false;
+        for (int line = start; line < lines.length && !grid.hasContradiction(); line++) {
+            //A line with a single place is a hidden single, which the cheaper rules take:
+            if (Long.bitCount(lines[line]) >= 2) {
+                final long combined = union | lines[line];
+                if (Long.bitCount(combined) <= size) {
+                    changed |= findFish(grid, lines, rows, value, line + 1, depth + 1, members | (1L << line), combined);
+                }
+            }
+        }
+        return changed;
+    }
+
+    private static int cell(int size, boolean rows, int line, int cross) {
+        return rows ? line * size + cross : cross * size + line;
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.example.demo.service.propagation;
+
+import com.example.demo.model.CandidateGrid;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+@Component
+@Order(2)
+public class HiddenSingles implements PropagationRule {
+
+    @Override
+    public String getName() {
+        return "hidden-singles";
+    }
+
+    @Override
+    public boolean apply(CandidateGrid grid) {
+        boolean changed = false;
+        final long allValues = grid.getGeometry().getAllValues();
+        for (final int[] unit : grid.getGeometry().getUnits()) {
+            if (grid.hasContradiction()) {
+                break;
+            }
+            long once = 0;
+            long twice = 0;
+            long placed = 0;
+            for (final int cell : unit) {
+                final long candidates = grid.getCandidates(cell);
+                twice |= once & candidates;
+                once |= candidates;
+                if (grid.isSet(cell)) {
+                    placed |= candidates;
+                }
+            }
+            if (once != allValues) {
+                //Some value has no place left in this unit:
+                grid.markContradiction();
+                return true;
+            }
+            long hidden = once & ~twice & ~placed;
+            while (hidden != 0) {
+                final long bit = hidden & -hidden;
+                for (final int cell : unit) {
+                    if ((grid.getCandidates(cell) & bit) != 0) {
+                        grid.assign(cell, Long.numberOfTrailingZeros(bit));
+                        break;
+                    }
+                }
+                hidden &= hidden - 1;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+}
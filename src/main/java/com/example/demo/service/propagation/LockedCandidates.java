@@ -0,0 +1,64 @@
+package com.example.demo.service.propagation;
+
+import com.example.demo.model.CandidateGrid;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Pointing and claiming: when a value is confined to the intersection of a box and a row or col
+ * within one of the two units, it can be removed from the rest of the other unit. The same holds for
+ * any two units sharing cells, so variants also lock candidates between diagonals, jigsaw regions and lines.
+ */
+@Component
+@Order(3)
+public class LockedCandidates implements PropagationRule {
+
+    @Override
+    public String getName() {
+        return "locked-candidates";
+    }
+
+    @Override
+    public boolean apply(CandidateGrid grid) {
+        boolean changed = false;
+        for (final int[][] intersection : grid.getGeometry().getUnitIntersections()) {
+            if (grid.hasContradiction()) {
+                break;
+            }
+            final long inside = unsolvedCandidates(grid, intersection[0]);
+            if (inside == 0) {
+                continue;
+            }
+            final long firstRest = unsolvedCandidates(grid, intersection[1]);
+            final long secondRest = unsolvedCandidates(grid, intersection[2]);
+            //Confined to the shared cells within the first unit, so gone from the rest of the second...
+            changed |= eliminate(grid, intersection[2], inside & ~firstRest & secondRest);
+            //...and the other way round (pointing and claiming, for a box and a line):
+            changed |= eliminate(grid, intersection[1], inside & ~secondRest & firstRest);
+        }
+        return changed;
+    }
+
+    private static long unsolvedCandidates(CandidateGrid grid, int[] cells) {
+        long mask = 0;
+        for (final int cell : cells) {
+            if (!grid.isSet(cell)) {
+                mask |= grid.getCandidates(cell);
+            }
+        }
+        return mask;
+    }
+
+    private static boolean eliminate(CandidateGrid grid, int[] cells, long mask) {
+        boolean changed = false;
+        if (mask != 0) {
+            for (final int cell : cells) {
+                if (!grid.isSet(cell)) {
+                    changed |= grid.eliminate(cell, mask);
+                }
+            }
+        }
+        return changed;
+    }
+
+}
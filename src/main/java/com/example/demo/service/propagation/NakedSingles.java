@@ -0,0 +1,30 @@
+package com.example.demo.service.propagation;
+
+import com.example.demo.model.CandidateGrid;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+@Component
+@Order(1)
+public class NakedSingles implements PropagationRule {
+
+    @Override
+    public String getName() {
+        return "naked-singles";
+    }
+
+    @Override
+    public boolean apply(CandidateGrid grid) {
+        boolean changed = false;
+        final int cells = grid.getGeometry().getCells();
+        for (int cell = 0; cell < cells && !grid.hasContradiction(); cell++) {
+            final long candidates = grid.getCandidates(cell);
+            if (!grid.isSet(cell) && Long.bitCount(candidates) == 1) {
+                grid.assign(cell, Long.numberOfTrailingZeros(candidates));
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+}
@@ -0,0 +1,72 @@
+package com.example.demo.service.propagation;
+
+import com.example.demo.model.CandidateGrid;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Naked pairs, triples and quads: when n cells of a unit share only n candidates between them,
+ * those values can be removed from the other cells of the unit.
+ */
+@Component
+@Order(4)
+public class NakedSubsets implements PropagationRule {
+
+    private static final int MAX_SUBSET_SIZE = 4;
+
+    @Override
+    public String getName() {
+        return "naked-subsets";
+    }
+
+    @Override
+    public boolean apply(CandidateGrid grid) {
+        boolean changed = false;
+        final int[] unsolved = new int[grid.getGeometry().getSize()];
+        for (final int[] unit : grid.getGeometry().getUnits()) {
+            if (grid.hasContradiction()) {
+                break;
+            }
+            int count = 0;
+            for (final int cell : unit) {
+                if (!grid.isSet(cell)) {
+                    unsolved[count++] = cell;
+                }
+            }
+            for (int size = 2; size <= MAX_SUBSET_SIZE && size < count; size++) {
+                changed |= findSubsets(grid, unsolved, count, size, 0, 0, 0, 0);
+            }
+        }
+        return changed;
+    }
+
+    //Members is a bit set over the positions in the unsolved array:
+    private static boolean findSubsets(CandidateGrid grid, int[] unsolved, int count, int size,
+                                       int start, int depth, long members, long union) {
+        if (depth == size) {
+            if (Long.bitCount(union) < size) {
+                grid.markContradiction();
+                return true;
+            }
+            boolean changed = false;
+            if (Long.bitCount(union) == size) {
+                for (int i = 0; i < count; i++) {
+                    if ((members & (1L << i)) == 0) {
+                        changed |= grid.eliminate(unsolved[i], union);
+                    }
+                }
+            }
+            return changed;
+        }
+        boolean changed = false;
+        for (int i = start; i < count && !grid.hasContradiction(); i++) {
+            final long candidates = grid.getCandidates(unsolved[i]);
+            final long combined = union | candidates;
+            if (Long.bitCount(combined) <= size) {
+                changed |= findSubsets(grid, unsolved, count, size, i + 1, depth + 1, members | (1L << i), combined);
+            }
+        }
+        return changed;
+    }
+
+}
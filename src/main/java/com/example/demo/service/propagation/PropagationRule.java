@@ -0,0 +1,15 @@
+package com.example.demo.service.propagation;
+
+import com.example.demo.model.CandidateGrid;
+
+public interface PropagationRule {
+
+    String getName();
+
+    /**
+     * Applies one pass of the rule to the grid and returns true when anything changed.
+     * Rules stop early once the grid has a contradiction.
+     */
+    boolean apply(CandidateGrid grid);
+
+}
@@ -0,0 +1,72 @@
+package com.example.demo.service.propagation;
+
+import com.example.demo.model.CandidateGrid;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Runs the propagation rules, cheapest first, until none of them changes the grid any more.
+ */
+@Component
+@AllArgsConstructor
+public class Propagator {
+
+    //Not one of the rules to pick from: without it the sums of killer cages would go unchecked:
+    private static final PropagationRule CAGE_SUMS = new CageSums();
+
+    @Getter
+    private final List<PropagationRule> rules;
+
+    public static Propagator of(PropagationRule... rules) {
+        return new Propagator(Arrays.asList(rules));
+    }
+
+    public static Propagator standard() {
+        return of(new NakedSingles(), new HiddenSingles(), new LockedCandidates(), new NakedSubsets());
+    }
+
+    /**
+     * A propagator running only the named rules, in this propagator's order. Names are trimmed, so
+     * {@code "naked-singles, hidden-singles".split(",")} works; an unknown name is an error rather than a rule
+     * silently left out.
+     */
+    public Propagator only(Collection<String> ruleNames) {
+        final Set<String> names = ruleNames.stream().map(String::trim).collect(Collectors.toSet());
+        final List<String> available = rules.stream().map(PropagationRule::getName).collect(Collectors.toList());
+        for (final String name : names) {
+            if (!available.contains(name)) {
+                throw new IllegalArgumentException("Unknown propagation rule '" + name + "', expected one of "
+                        + available);
+            }
+        }
+        return new Propagator(rules.stream()
+                .filter(rule -> names.contains(rule.getName()))
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Returns false when propagation found a contradiction.
+     */
+    public boolean propagate(CandidateGrid grid) {
+        final int count = grid.getGeometry().hasCages() ? rules.size() + 1 : rules.size();
+        int index = 0;
+        while (index < count && !grid.hasContradiction()) {
+            final PropagationRule rule = index < rules.size() ? rules.get(index) : CAGE_SUMS;
+            if (rule.apply(grid)) {
+                //Go back to the cheapest rule after every change:
+                index = 0;
+            } else {
+                index++;
+            }
+        }
+        return !grid.hasContradiction();
+    }
+
+}
@@ -0,0 +1,130 @@
+package com.example.demo.service.propagation;
+
+import com.example.demo.model.CandidateGrid;
+import com.example.demo.model.Geometry;
+
+import java.util.Arrays;
+
+/**
+ * Single digit chains: cells that are the only two places for a value in some unit form a conjugate pair,
+ * exactly one of them holds the value. Following the pairs colours a chain in two alternating colours, one
+ * of which holds the value everywhere. A colour seen twice in one unit is the false one and loses the value
+ * (colour wrap); a cell outside the chain seeing both colours cannot hold it (colour trap). Not part of the
+ * standard propagator, the rating ladder uses it.
+ */
+public class SimpleColouring implements PropagationRule {
+
+    @Override
+    public String getName() {
+        return "simple-colouring";
+    }
+
+    @Override
+    public boolean apply(CandidateGrid grid) {
+        final Geometry geometry = grid.getGeometry();
+        final int[][] units = geometry.getUnits();
+        //Conjugate pairs, and per cell its chain and colour (chain * 2 + colour + 1, 0 outside any chain):
+        final int[] pairs = new int[units.length * 2];
+        final int[] colours = new int[geometry.getCells()];
+        final int[] stack = new int[geometry.getCells()];
+        boolean changed = false;
+        for (int value = 0; value < geometry.getSize() && !grid.hasContradiction(); value++) {
+            final long bit = 1L << value;
+            int pairCount = 0;
+            for (final int[] unit : units) {
+                int first = -1;
+                int second = -1;
+                int count = 0;
+                for (final int cell : unit) {
+                    if (!grid.isSet(cell) && (grid.getCandidates(cell) & bit) != 0) {
+                        if (count == 0) {
+                            first = cell;
+                        } else {
+                            second = cell;
+                        }
+                        count++;
+                    }
+                }
+                if (count == 2) {
+                    pairs[pairCount++] = first;
+                    pairs[pairCount++] = second;
+                }
+            }
+            if (pairCount == 0) {
+                continue;
+            }
+            Arrays.fill(colours, 0);
+            int chains = 0;
+            for (int pair = 0; pair < pairCount; pair += 2) {
+                if (colours[pairs[pair]] == 0) {
+                    colour(pairs, pairCount, colours, stack, pairs[pair], chains++);
+                }
+            }
+            for (int chain = 0; chain < chains && !grid.hasContradiction(); chain++) {
+                changed |= eliminate(grid, colours, chain, bit);
+            }
+        }
+        return changed;
+    }
+
+    //Colours the chain of the cell, alternating along the pairs:
+    private static void colour(int[] pairs, int pairCount, int[] colours, int[] stack, int start, int chain) {
+        int top = 0;
+        colours[start] = chain * 2 + 1;
+        stack[top++] = start;
+        while (top > 0) {
+            final int cell = stack[--top];
+            final int opposite = colours[cell] == chain * 2 + 1 ? chain * 2 + 2 : chain * 2 + 1;
+            for (int pair = 0; pair < pairCount; pair += 2) {
+                final int other = pairs[pair] == cell ? pairs[pair + 1] : pairs[pair + 1] == cell ? pairs[pair] : -1;
+                if (other >= 0 && colours[other] == 0) {
+                    colours[other] = opposite;
+                    stack[top++] = other;
+                }
+            }
+        }
+    }
+
+    private static boolean eliminate(CandidateGrid grid, int[] cells, int chain, long bit) {
+        final int firstColour = chain * 2 + 1;
+        final int secondColour = chain * 2 + 2;
+        //Colour wrap: two cells of one colour see each other, so that colour is false:
+        for (int cell = 0; cell < cells.length; cell++) {
+            if (cells[cell] == firstColour || cells[cell] == secondColour) {
+                for (final int peer : grid.getGeometry().peersOf(cell)) {
+                    if (cells[peer] == cells[cell]) {
+                        return eliminateColour(grid, cells, cells[cell], bit);
+                    }
+                }
+            }
+        }
+        //Colour trap: a cell outside the chain seeing both colours:
+        boolean changed = false;
+        for (int cell = 0; cell < cells.length; cell++) {
+            if (cells[cell] != firstColour && cells[cell] != secondColour
+                    && !grid.isSet(cell) && (grid.getCandidates(cell) & bit) != 0) {
+                boolean seesFirst = false;
+                boolean seesSecond = false;
+                for (final int peer : grid.getGeometry().peersOf(cell)) {
+                    seesFirst |= cells[peer] == firstColour;
+                    seesSecond |= cells[peer] == secondColour;
+                }
+                if (seesFirst && seesSecond) {
+                    changed |= grid.eliminate(cell, bit);
+                }
+            }
+        }
+        return changed;
+    }
+
+    private static boolean eliminateColour(CandidateGrid grid, int[] colours, int colour, long bit) {
+        boolean changed = false;
+        for (int cell = 0; cell < colours.length; cell++) {
+            if (colours[cell] == colour) {
+                changed |= grid.eliminate(cell, bit);
+            }
+        }
+        return changed;
+    }
+
+}
@@ -0,0 +1,240 @@
+package com.example.demo.service.rating;
+
+import com.example.demo.config.BatchProperties;
+import com.example.demo.model.CandidateGrid;
+import com.example.demo.model.GridFormat;
+import com.example.demo.model.SudokuBoard;
+import com.example.demo.service.batch.BatchSolver;
+import com.example.demo.service.batch.PuzzleReader;
+import com.example.demo.service.propagation.Fish;
+import com.example.demo.service.propagation.HiddenSingles;
+import com.example.demo.service.propagation.LockedCandidates;
+import com.example.demo.service.propagation.NakedSingles;
+import com.example.demo.service.propagation.NakedSubsets;
+import com.example.demo.service.propagation.SimpleColouring;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Rates puzzles by the techniques a person needs to solve them. The ladder is climbed from the bottom on
+ * every step: the cheapest technique that makes progress is applied and counted, and the climb starts over,
+ * so a harder technique is only used where nothing easier works. The score is the weight of the hardest
+ * technique used; a puzzle the ladder cannot finish scores as search.
+ * <p>
+ * A rating works on one grid and the scratch space of the rules, so rating files runs one puzzle per
+ * worker, {@code batch.workers} at a time, and writes the ratings in input order as batch solving does.
+ */
+@Component
+@Slf4j
+public class PuzzleRater {
+
+    public static final String NONE = "none";
+    public static final String SEARCH = "search";
+    public static final String CONTRADICTION = "contradiction";
+
+    static final double SINGLES_WEIGHT = 1.5;
+    static final double SUBSETS_WEIGHT = 3.0;
+    private static final double SEARCH_WEIGHT = 10.0;
+
+    private final List<Technique> ladder = Collections.unmodifiableList(Arrays.asList(
+            Technique.of(new NakedSingles(), 1.0),
+            Technique.of(new HiddenSingles(), SINGLES_WEIGHT),
+            Technique.of(new LockedCandidates(), 2.6),
+            Technique.of(new NakedSubsets(), SUBSETS_WEIGHT),
+            Technique.of(Fish.X_WING, 3.2),
+            Technique.of(Fish.SWORDFISH, 3.8),
+            Technique.of(new SimpleColouring(), 4.5)));
+
+    private final BatchProperties batchProperties;
+
+    public PuzzleRater(BatchProperties batchProperties) {
+        this.batchProperties = batchProperties;
+    }
+
+    public List<Technique> getLadder() {
+        return ladder;
+    }
+
+    public Rating rate(final SudokuBoard board) {
+        return climb(CandidateGrid.of(board));
+    }
+
+    /**
+     * Rates a grid of any size or variant, leaving the grid as it is.
+     */
+    public Rating rate(final CandidateGrid grid) {
+        return climb(grid.copy());
+    }
+
+    private Rating climb(final CandidateGrid grid) {
+        final int[] steps = new int[ladder.size()];
+        int hardest = -1;
+        int rung = 0;
+        while (rung < ladder.size() && !grid.hasContradiction() && !grid.isSolved()) {
+            if (ladder.get(rung).getRule().apply(grid)) {
+                steps[rung]++;
+                hardest = Math.max(hardest, rung);
+                rung = 0;
+            } else {
+                rung++;
+            }
+        }
+        final Map<String, Integer> histogram = new LinkedHashMap<>();
+        for (int i = 0; i < steps.length; i++) {
+            if (steps[i] > 0) {
+                histogram.put(ladder.get(i).getName(), steps[i]);
+            }
+        }
+        if (grid.hasContradiction()) {
+            return new Rating(0, CONTRADICTION, histogram, false);
+        }
+        if (!grid.isSolved()) {
+            return new Rating(SEARCH_WEIGHT, SEARCH, histogram, false);
+        }
+        //A puzzle given solved needs no technique at all:
+        return hardest < 0
+                ? new Rating(0, NONE, histogram, true)
+                : new Rating(ladder.get(hardest).getWeight(), ladder.get(hardest).getName(), histogram, true);
+    }
+
+    /**
+     * Climbs the ladder on the puzzle checking after every step that the solution still fits the grid, as it
+     * does for sound techniques on any puzzle, whatever its number of solutions. Returns the technique of the
+     * first step that ruled the solution out, empty when none did.
+     */
+    public Optional<String> findUnsoundStep(final CandidateGrid puzzle, final CandidateGrid solution) {
+        final CandidateGrid grid = puzzle.copy();
+        int rung = 0;
+        while (rung < ladder.size() && !grid.hasContradiction() && !grid.isSolved()) {
+            if (ladder.get(rung).getRule().apply(grid)) {
+                if (!fits(grid, solution)) {
+                    return Optional.of(ladder.get(rung).getName());
+                }
+                rung = 0;
+            } else {
+                rung++;
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static boolean fits(final CandidateGrid grid, final CandidateGrid solution) {
+        for (int cell = 0; cell < grid.getGeometry().getCells(); cell++) {
+            final int value = solution.getValue(cell);
+            if (grid.isSet(cell) ? grid.getValue(cell) != value : (grid.getCandidates(cell) & (1L << value)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Rates every puzzle of the file (any grid size), writing one line per puzzle in input order: the score,
+     * the hardest technique and the histogram as {@code technique:passes} pairs, or {@link BatchSolver#INVALID}.
+     */
+    public RatingResult rateFile(final Path input, final Path output) throws IOException, InterruptedException {
+        final long start = System.nanoTime();
+        final ExecutorService workers = Executors.newFixedThreadPool(batchProperties.getWorkers());
+        final BlockingQueue<Future<Rating>> pending = new ArrayBlockingQueue<>(batchProperties.getQueueCapacity());
+        final AtomicReference<IOException> readFailure = new AtomicReference<>();
+        final Future<Rating> endOfInput = CompletableFuture.completedFuture(null);
+        final Thread reader = new Thread(() -> {
+            try (PuzzleReader puzzles = PuzzleReader.open(input)) {
+                String line;
+                while ((line = puzzles.next()) != null) {
+                    final String puzzle = line;
+                    pending.put(workers.submit(() -> rate(puzzle)));
+                }
+            } catch (IOException e) {
+                readFailure.set(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                try {
+                    pending.put(endOfInput);
+                } catch (InterruptedException e) {
+                    //The writer has given up already
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }, "rating-reader");
+        reader.start();
+
+        long puzzles = 0;
+        long stuck = 0;
+        long invalid = 0;
+        final Map<String, Long> hardest = new LinkedHashMap<>();
+        for (final Technique technique : ladder) {
+            hardest.put(technique.getName(), 0L);
+        }
+        hardest.put(NONE, 0L);
+        hardest.put(SEARCH, 0L);
+        hardest.put(CONTRADICTION, 0L);
+        try (BufferedWriter writer = Files.newBufferedWriter(output, StandardCharsets.US_ASCII)) {
+            Future<Rating> next;
+            while ((next = pending.take()) != endOfInput) {
+                final Rating rating = next.get();
+                puzzles++;
+                if (rating == null) {
+                    invalid++;
+                    writer.write(BatchSolver.INVALID);
+                } else {
+                    if (!rating.isSolved()) {
+                        stuck++;
+                    }
+                    hardest.merge(rating.getHardest(), 1L, Long::sum);
+                    writer.write(format(rating));
+                }
+                writer.newLine();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Rating a puzzle failed", e.getCause());
+        } finally {
+            reader.interrupt();
+            workers.shutdownNow();
+        }
+        if (readFailure.get() != null) {
+            throw readFailure.get();
+        }
+        return new RatingResult(puzzles, stuck, invalid, hardest, System.nanoTime() - start);
+    }
+
+    //Null for a malformed line:
+    private Rating rate(final String puzzle) {
+        final CandidateGrid grid;
+        try {
+            grid = GridFormat.parse(puzzle);
+        } catch (IllegalArgumentException e) {
+            log.debug("Skipping invalid puzzle '{}': {}", puzzle, e.getMessage());
+            return null;
+        }
+        return climb(grid);
+    }
+
+    public static String format(final Rating rating) {
+        final StringBuilder line = new StringBuilder();
+        line.append(String.format(Locale.ROOT, "%.1f", rating.getScore())).append(' ').append(rating.getHardest());
+        String separator = " ";
+        for (final Map.Entry<String, Integer> entry : rating.getHistogram().entrySet()) {
+            line.append(separator).append(entry.getKey()).append(':').append(entry.getValue());
+            separator = ",";
+        }
+        return line.toString();
+    }
+
+}
@@ -0,0 +1,39 @@
+package com.example.demo.service.rating;
+
+import com.example.demo.service.generator.Difficulty;
+import lombok.Value;
+
+import java.util.Map;
+
+/**
+ * How a puzzle is solved by hand: the hardest technique it needs, whose weight is the score, and how many
+ * passes of every technique made progress on the way.
+ */
+@Value
+public class Rating {
+
+    double score;
+    //The hardest technique used, none for a board given solved, the search when the ladder got stuck, or the
+    //contradiction found:
+    String hardest;
+    //Passes that made progress per technique, in ladder order, leaving out the techniques never used:
+    Map<String, Integer> histogram;
+    //Every cell was solved by the techniques of the ladder:
+    boolean solved;
+
+    public boolean isContradiction() {
+        return PuzzleRater.CONTRADICTION.equals(hardest);
+    }
+
+    /**
+     * The difficulty the generator would give the puzzle: easy with singles only, medium with at most naked
+     * subsets, and hard beyond.
+     */
+    public Difficulty getDifficulty() {
+        if (score <= PuzzleRater.SINGLES_WEIGHT) {
+            return Difficulty.EASY;
+        }
+        return score <= PuzzleRater.SUBSETS_WEIGHT ? Difficulty.MEDIUM : Difficulty.HARD;
+    }
+
+}
@@ -0,0 +1,22 @@
+package com.example.demo.service.rating;
+
+import lombok.Value;
+
+import java.util.Map;
+
+@Value
+public class RatingResult {
+
+    long puzzles;
+    //Puzzles the ladder could not finish, needing search or having no solution:
+    long stuck;
+    long invalid;
+    //Puzzles per hardest technique, in ladder order:
+    Map<String, Long> hardest;
+    long elapsedNanos;
+
+    public double getPuzzlesPerSecond() {
+        return elapsedNanos == 0 ? 0 : puzzles * 1_000_000_000d / elapsedNanos;
+    }
+
+}
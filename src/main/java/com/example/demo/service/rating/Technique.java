@@ -0,0 +1,20 @@
+package com.example.demo.service.rating;
+
+import com.example.demo.service.propagation.PropagationRule;
+import lombok.Value;
+
+/**
+ * A rung of the rating ladder: a solving technique and what it adds to the score of a puzzle needing it.
+ */
+@Value
+public class Technique {
+
+    String name;
+    double weight;
+    PropagationRule rule;
+
+    public static Technique of(PropagationRule rule, double weight) {
+        return new Technique(rule.getName(), weight, rule);
+    }
+
+}
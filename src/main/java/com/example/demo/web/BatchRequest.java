@@ -0,0 +1,14 @@
+package com.example.demo.web;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchRequest {
+
+    private List<String> puzzles;
+
+    private String engine;
+
+}
@@ -0,0 +1,12 @@
+package com.example.demo.web;
+
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+public class BatchResponse {
+
+    List<SolveResponse> results;
+
+}
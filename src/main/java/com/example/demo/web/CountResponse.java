@@ -0,0 +1,13 @@
+package com.example.demo.web;
+
+import com.example.demo.service.SearchStatus;
+import lombok.Value;
+
+@Value
+public class CountResponse {
+
+    //All solutions when exhausted, a lower bound otherwise:
+    long count;
+    SearchStatus status;
+
+}
@@ -0,0 +1,10 @@
+package com.example.demo.web;
+
+import lombok.Value;
+
+@Value
+public class ErrorResponse {
+
+    String error;
+
+}
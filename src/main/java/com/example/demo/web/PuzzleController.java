@@ -0,0 +1,57 @@
+package com.example.demo.web;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * JSON over HTTP next to the shell: {@code POST /api/solve}, {@code /api/count}, {@code /api/validate} with a
+ * {@link PuzzleRequest} and {@code /api/solve/batch} with a {@link BatchRequest}. The handlers return as soon as
+ * the search is queued, the response is written when it completes.
+ */
+@RestController
+@RequestMapping("/api")
+@AllArgsConstructor
+@Slf4j
+public class PuzzleController {
+
+    private final PuzzleService puzzleService;
+
+    @PostMapping("/solve")
+    public CompletableFuture<SolveResponse> solve(@RequestBody PuzzleRequest request) {
+        return puzzleService.solve(request);
+    }
+
+    @PostMapping("/count")
+    public CompletableFuture<CountResponse> count(@RequestBody PuzzleRequest request) {
+        return puzzleService.count(request);
+    }
+
+    @PostMapping("/validate")
+    public CompletableFuture<ValidateResponse> validate(@RequestBody PuzzleRequest request) {
+        return puzzleService.validate(request);
+    }
+
+    @PostMapping("/solve/batch")
+    public CompletableFuture<BatchResponse> solveBatch(@RequestBody BatchRequest request) {
+        return puzzleService.solveBatch(request);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse badRequest(IllegalArgumentException e) {
+        return new ErrorResponse(e.getMessage());
+    }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ErrorResponse busy(RejectedExecutionException e) {
+        log.warn("Turning a request away, the solver queue is full");
+        return new ErrorResponse("Too many puzzles waiting to be solved, try again later");
+    }
+
+}
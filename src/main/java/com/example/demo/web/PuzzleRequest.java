@@ -0,0 +1,17 @@
+package com.example.demo.web;
+
+import lombok.Data;
+
+@Data
+public class PuzzleRequest {
+
+    //81 characters, '0' or '.' for an empty cell:
+    private String puzzle;
+
+    //The solver engine, defaults to the backtracking one:
+    private String engine;
+
+    //Solutions to count at most, count requests only:
+    private Long limit;
+
+}
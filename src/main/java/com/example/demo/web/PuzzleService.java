@@ -0,0 +1,160 @@
+package com.example.demo.web;
+
+import com.example.demo.config.ApiProperties;
+import com.example.demo.model.PuzzleFormat;
+import com.example.demo.model.SudokuBoard;
+import com.example.demo.service.CancellationToken;
+import com.example.demo.service.SearchOutcome;
+import com.example.demo.service.SearchStatus;
+import com.example.demo.service.SolveResult;
+import com.example.demo.service.SolverEngine;
+import com.example.demo.service.SolverEngines;
+import com.example.demo.service.cache.SolutionCache;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Solves the puzzles of HTTP requests. Every request parses its own boards, nothing is shared between requests
+ * but the solution cache. Searches run on the bounded {@code apiExecutor}, never on the request threads, with a
+ * time budget of {@code api.timeout} from the moment the request came in (waiting in the queue included): a
+ * search that runs out of it answers with what it found and a timed out status. A full executor queue fails the
+ * call with a {@link RejectedExecutionException}, malformed requests with an {@link IllegalArgumentException}.
+ */
+@Component
+@AllArgsConstructor
+public class PuzzleService {
+
+    private final SolverEngines solverEngines;
+    private final SolutionCache solutionCache;
+    private final ApiProperties apiProperties;
+    private final ThreadPoolExecutor apiExecutor;
+
+    public CompletableFuture<SolveResponse> solve(final PuzzleRequest request) {
+        final SolverEngine engine = engine(request.getEngine());
+        final SudokuBoard board = parse(request.getPuzzle());
+        final CancellationToken token = token();
+        return submit(() -> solve(engine, request.getPuzzle(), board, token), token);
+    }
+
+    public CompletableFuture<CountResponse> count(final PuzzleRequest request) {
+        final SolverEngine engine = engine(request.getEngine());
+        final SudokuBoard board = parse(request.getPuzzle());
+        final long limit = request.getLimit() == null ? apiProperties.getCountLimit() : request.getLimit();
+        if (limit < 1 || limit > apiProperties.getMaxCountLimit()) {
+            throw new IllegalArgumentException("The limit must be between 1 and " + apiProperties.getMaxCountLimit());
+        }
+        final CancellationToken token = token();
+        return submit(() -> {
+            final SearchOutcome outcome = engine.countSolutions(board, limit, token);
+            return new CountResponse(outcome.getFound(), outcome.getStatus());
+        }, token);
+    }
+
+    public CompletableFuture<ValidateResponse> validate(final PuzzleRequest request) {
+        final SolverEngine engine = engine(request.getEngine());
+        final SudokuBoard board = parse(request.getPuzzle());
+        if (!board.isValid()) {
+            return CompletableFuture.completedFuture(new ValidateResponse(false, false, 0, SearchStatus.EXHAUSTED));
+        }
+        final CancellationToken token = token();
+        return submit(() -> {
+            final SearchOutcome outcome = engine.countSolutions(board, 2, token);
+            return new ValidateResponse(true, board.isSolved(), outcome.getFound(), outcome.getStatus());
+        }, token);
+    }
+
+    /**
+     * Solves the puzzles in parallel, answering in request order; malformed puzzles are answered as invalid
+     * instead of failing the request. The time budget covers the whole batch.
+     */
+    public CompletableFuture<BatchResponse> solveBatch(final BatchRequest request) {
+        final SolverEngine engine = engine(request.getEngine());
+        final List<String> puzzles = request.getPuzzles();
+        if (puzzles == null || puzzles.isEmpty()) {
+            throw new IllegalArgumentException("No puzzles given");
+        }
+        if (puzzles.size() > apiProperties.getMaxBatchSize()) {
+            throw new IllegalArgumentException("At most " + apiProperties.getMaxBatchSize() + " puzzles per batch");
+        }
+        final CancellationToken token = token();
+        final List<CompletableFuture<SolveResponse>> results = new ArrayList<>(puzzles.size());
+        try {
+            for (final String puzzle : puzzles) {
+                SudokuBoard board;
+                try {
+                    board = parse(puzzle);
+                } catch (IllegalArgumentException e) {
+                    results.add(CompletableFuture.completedFuture(
+                            new SolveResponse(puzzle, SolveResponse.Status.INVALID, null, e.getMessage())));
+                    continue;
+                }
+                final SudokuBoard parsed = board;
+                results.add(submit(() -> solve(engine, puzzle, parsed, token), token));
+            }
+        } catch (RejectedExecutionException e) {
+            token.cancel();
+            throw e;
+        }
+        return CompletableFuture
+                .allOf(results.toArray(new CompletableFuture<?>[0]))
+                .thenApply(done -> {
+                    final List<SolveResponse> responses = new ArrayList<>(results.size());
+                    results.forEach(result -> responses.add(result.join()));
+                    return new BatchResponse(responses);
+                });
+    }
+
+    private SolveResponse solve(final SolverEngine engine, final String puzzle, final SudokuBoard board,
+                                final CancellationToken token) {
+        final SolveResult result = solutionCache.findFirst(engine, board, token);
+        final Optional<SudokuBoard> solution = result.getSolutions().stream().findFirst();
+        if (solution.isPresent()) {
+            return new SolveResponse(puzzle, SolveResponse.Status.SOLVED, PuzzleFormat.format(solution.get()), null);
+        }
+        return result.getStatus() == SearchStatus.EXHAUSTED
+                ? new SolveResponse(puzzle, SolveResponse.Status.UNSOLVABLE, null, null)
+                : new SolveResponse(puzzle, SolveResponse.Status.TIMED_OUT, null, null);
+    }
+
+    private CancellationToken token() {
+        return CancellationToken.withBudget(apiProperties.getTimeout());
+    }
+
+    private SolverEngine engine(final String name) {
+        return solverEngines.get(name == null ? SolverEngines.DEFAULT : name);
+    }
+
+    private static SudokuBoard parse(final String puzzle) {
+        if (puzzle == null) {
+            throw new IllegalArgumentException("No puzzle given");
+        }
+        return PuzzleFormat.parse(SudokuBoard.emptyBitboard(), puzzle);
+    }
+
+    //The future of a search on a worker; cancelling it cancels the token, and so the search:
+    private <T> CompletableFuture<T> submit(final Callable<T> search, final CancellationToken token) {
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        apiExecutor.execute(() -> {
+            try {
+                result.complete(search.call());
+            } catch (Exception e) {
+                result.completeExceptionally(e);
+            }
+        });
+        result.whenComplete((value, failure) -> {
+            if (result.isCancelled()) {
+                token.cancel();
+            }
+        });
+        return result;
+    }
+
+}
@@ -0,0 +1,17 @@
+package com.example.demo.web;
+
+import lombok.Value;
+
+@Value
+public class SolveResponse {
+
+    public enum Status { SOLVED, UNSOLVABLE, INVALID, TIMED_OUT }
+
+    String puzzle;
+    Status status;
+    //Null unless solved:
+    String solution;
+    //Why the puzzle is invalid, null otherwise:
+    String error;
+
+}
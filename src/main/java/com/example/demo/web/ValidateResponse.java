@@ -0,0 +1,21 @@
+package com.example.demo.web;
+
+import com.example.demo.service.SearchStatus;
+import lombok.Value;
+
+@Value
+public class ValidateResponse {
+
+    //No value repeats in a row, col or box and every empty cell still has a candidate:
+    boolean valid;
+    boolean solved;
+    //Solutions counted up to 2, so 2 means "more than one":
+    long solutions;
+    //A timed out count of 1 does not make the puzzle unique:
+    SearchStatus status;
+
+    public boolean isUnique() {
+        return solutions == 1 && status == SearchStatus.EXHAUSTED;
+    }
+
+}